@@ -0,0 +1,140 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Blocked Bloom filter: each key maps to one 512-bit block (one 64-byte cache line)
+ * and sets all of its bits inside that block, so an add or a query touches a single
+ * cache line. Bits live in atomic long words, so adds from many threads are safe and
+ * queries need no lock.
+ *
+ * A negative answer from mightContain is definite; a positive one is wrong with
+ * roughly the configured probability while no more than the expected number of keys
+ * have been added.
+ *
+ * Boxed integral keys ({@code Long}, {@code Integer}, {@code Short}, {@code Byte}) hash
+ * by their numeric value, the same way as {@code add(long)}, so a key added through one
+ * overload is found through the other.
+ */
+public class BlockedBloomFilter {
+    private static final int WORDS_PER_BLOCK = 8; // 8 x 64 bits = one cache line
+    private static final int BLOCK_BITS = WORDS_PER_BLOCK * Long.SIZE;
+    private static final int BIT_INDEX_BITS = 9;  // log2(BLOCK_BITS)
+    private static final int MAX_HASHES = 16;
+    // Blocking makes the fill uneven, so allow a little more space than a classic filter
+    private static final double BLOCKING_OVERHEAD = 1.05;
+
+    private final AtomicLongArray words;
+    private final long blocks;
+    private final int hashCount;
+
+    public BlockedBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+
+        double ln2 = Math.log(2);
+        double bitsPerKey = -Math.log(falsePositiveRate) / (ln2 * ln2) * BLOCKING_OVERHEAD;
+        long bits = (long) Math.ceil(expectedInsertions * bitsPerKey);
+        long blockCount = Math.max(1, (bits + BLOCK_BITS - 1) / BLOCK_BITS);
+        if (blockCount * WORDS_PER_BLOCK > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Filter would exceed " + Integer.MAX_VALUE + " words");
+        }
+
+        this.blocks = blockCount;
+        this.words = new AtomicLongArray((int) (blockCount * WORDS_PER_BLOCK));
+        this.hashCount = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(bitsPerKey / BLOCKING_OVERHEAD * ln2)));
+    }
+
+    public void add(Object key) {
+        addHash(hashOf(key));
+    }
+
+    public void add(long key) {
+        addHash(mix(key));
+    }
+
+    public boolean mightContain(Object key) {
+        return containsHash(hashOf(key));
+    }
+
+    public boolean mightContain(long key) {
+        return containsHash(mix(key));
+    }
+
+    // Not atomic with respect to concurrent adds
+    public void clear() {
+        for (int i = 0; i < words.length(); i++) {
+            words.set(i, 0);
+        }
+    }
+
+    public long bitSize() {
+        return blocks * BLOCK_BITS;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    private static long hashOf(Object key) {
+        if (key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte) {
+            return mix(((Number) key).longValue());
+        }
+        return mix(key.hashCode());
+    }
+
+    private void addHash(long hash) {
+        int base = blockOf(hash);
+        long bits = mix(hash);
+
+        for (int i = 0; i < hashCount; i++) {
+            int word = base + bitIndex(bits, i) / Long.SIZE;
+            long mask = 1L << bitIndex(bits, i);
+            long current = words.get(word);
+            // Bits only ever get set, so a CAS loop on a missing bit always converges
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+            if (i % 6 == 5) {
+                bits = mix(bits);
+            }
+        }
+    }
+
+    private boolean containsHash(long hash) {
+        int base = blockOf(hash);
+        long bits = mix(hash);
+
+        for (int i = 0; i < hashCount; i++) {
+            int word = base + bitIndex(bits, i) / Long.SIZE;
+            if ((words.get(word) & (1L << bitIndex(bits, i))) == 0) {
+                return false;
+            }
+            if (i % 6 == 5) {
+                bits = mix(bits);
+            }
+        }
+        return true;
+    }
+
+    // First word of the key's block, from the top 32 hash bits scaled onto the block count
+    private int blockOf(long hash) {
+        return (int) (((hash >>> 32) * blocks) >>> 32) * WORDS_PER_BLOCK;
+    }
+
+    // Six 9-bit positions per 64-bit value; the caller re-mixes after every sixth
+    private static int bitIndex(long bits, int i) {
+        return (int) (bits >>> ((i % 6) * BIT_INDEX_BITS)) & (BLOCK_BITS - 1);
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        h *= 0xD6E8FEB86659FD93L;
+        return h ^ (h >>> 32);
+    }
+}
@@ -0,0 +1,482 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Bounded cache built on a chained hash table whose entries are also linked into
+ * access-order lists, so eviction needs no structure beyond the table itself.
+ *
+ * Without admission the cache is a plain LRU. With W-TinyLFU admission, new entries
+ * land in a small LRU window (1% of the capacity); an entry leaving the window only
+ * enters the main LRU if a count-min frequency sketch says it is used more often than
+ * the main victim it would displace. Capacity is measured in weight units, loads
+ * through {@link #get(Object, Function)} run once per key even under concurrency, and
+ * hit/miss/eviction counters are kept for monitoring. All methods are thread-safe.
+ */
+public class BoundedCache<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.75;
+    private static final int WINDOW_PERCENT = 1;
+
+    private static class Entry<K, V> {
+        final K key;
+        final int hash;
+        V value;
+        int weight;
+        boolean inWindow;
+        Entry<K, V> next;   // bucket chain
+        Entry<K, V> before; // access-order list
+        Entry<K, V> after;
+
+        Entry(K key, int hash, V value, int weight) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    private final long maximumWeight;
+    private final long windowMaximum;
+    private final ToIntBiFunction<? super K, ? super V> weigher;
+    private final FrequencySketch sketch; // null when admission is disabled
+
+    // Circular lists with sentinel heads: head.after is least recently used
+    private final Entry<K, V> windowHead = sentinel();
+    private final Entry<K, V> mainHead = sentinel();
+    private long windowWeight;
+    private long mainWeight;
+
+    private Entry<K, V>[] buckets;
+    private int size;
+
+    private final Map<K, CompletableFuture<V>> inFlight = new HashMap<>();
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    public BoundedCache(long maximumSize) {
+        this(maximumSize, (key, value) -> 1, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    public BoundedCache(long maximumWeight, ToIntBiFunction<? super K, ? super V> weigher, boolean tinyLfuAdmission) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("Maximum weight must be positive");
+        }
+        if (weigher == null) {
+            throw new IllegalArgumentException("Weigher cannot be null");
+        }
+
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.sketch = tinyLfuAdmission ? new FrequencySketch(DEFAULT_CAPACITY) : null;
+        this.windowMaximum = tinyLfuAdmission ? Math.max(1, maximumWeight * WINDOW_PERCENT / 100) : 0;
+        this.buckets = new Entry[DEFAULT_CAPACITY];
+    }
+
+    public synchronized V getIfPresent(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+
+        int hash = spread(key.hashCode());
+        recordAccess(hash);
+
+        Entry<K, V> entry = find(key, hash);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+
+        hitCount++;
+        moveToTail(entry);
+        return entry.value;
+    }
+
+    /**
+     * Returns the cached value, computing it with loader on a miss. Concurrent callers
+     * missing on the same key wait for a single load instead of running their own.
+     * A null result from the loader is returned but not cached.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        if (loader == null) {
+            throw new IllegalArgumentException("Loader cannot be null");
+        }
+
+        CompletableFuture<V> pending;
+        boolean owner = false;
+
+        synchronized (this) {
+            V value = getIfPresent(key);
+            if (value != null) {
+                return value;
+            }
+
+            pending = inFlight.get(key);
+            if (pending == null) {
+                pending = new CompletableFuture<>();
+                inFlight.put(key, pending);
+                owner = true;
+            }
+        }
+
+        if (!owner) {
+            try {
+                return pending.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        // The loader runs outside the lock so other keys are not held up
+        V loaded;
+        try {
+            loaded = loader.apply(key);
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                inFlight.remove(key);
+            }
+            pending.completeExceptionally(e);
+            throw e;
+        }
+
+        synchronized (this) {
+            inFlight.remove(key);
+            if (loaded != null) {
+                put(key, loaded);
+            }
+        }
+        pending.complete(loaded);
+        return loaded;
+    }
+
+    public synchronized void put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+
+        int hash = spread(key.hashCode());
+        int weight = weigher.applyAsInt(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight cannot be negative");
+        }
+
+        recordAccess(hash);
+        Entry<K, V> entry = find(key, hash);
+        if (entry != null) {
+            addWeight(entry, weight - entry.weight);
+            entry.value = value;
+            entry.weight = weight;
+            moveToTail(entry);
+        } else {
+            entry = new Entry<>(key, hash, value, weight);
+            int index = hash & (buckets.length - 1);
+            entry.next = buckets[index];
+            buckets[index] = entry;
+            size++;
+            if (sketch != null) {
+                sketch.ensureCapacity(size);
+            }
+
+            entry.inWindow = sketch != null;
+            linkLast(entry.inWindow ? windowHead : mainHead, entry);
+            addWeight(entry, weight);
+
+            if ((double) size / buckets.length >= LOAD_FACTOR) {
+                resize();
+            }
+        }
+
+        evict();
+    }
+
+    public synchronized V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+
+        Entry<K, V> entry = find(key, spread(key.hashCode()));
+        if (entry == null) {
+            return null;
+        }
+        removeEntry(entry);
+        return entry.value;
+    }
+
+    public synchronized boolean containsKey(K key) {
+        return key != null && find(key, spread(key.hashCode())) != null;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    public synchronized long weightedSize() {
+        return windowWeight + mainWeight;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(buckets, null);
+        windowHead.before = windowHead.after = windowHead;
+        mainHead.before = mainHead.after = mainHead;
+        windowWeight = 0;
+        mainWeight = 0;
+        size = 0;
+    }
+
+    public synchronized long hitCount() {
+        return hitCount;
+    }
+
+    public synchronized long missCount() {
+        return missCount;
+    }
+
+    public synchronized long evictionCount() {
+        return evictionCount;
+    }
+
+    public synchronized double hitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    private void evict() {
+        long mainMaximum = maximumWeight - windowMaximum;
+
+        // Entries leaving the window compete with the main LRU victim on frequency
+        while (windowWeight > windowMaximum) {
+            Entry<K, V> candidate = windowHead.after;
+            unlink(candidate);
+            windowWeight -= candidate.weight;
+            candidate.inWindow = false;
+
+            int candidateFrequency = sketch.frequency(candidate.hash);
+            while (mainWeight + candidate.weight > mainMaximum && mainHead.after != mainHead
+                    && candidateFrequency > sketch.frequency(mainHead.after.hash)) {
+                removeEntry(mainHead.after);
+                evictionCount++;
+            }
+
+            if (mainWeight + candidate.weight <= mainMaximum) {
+                linkLast(mainHead, candidate);
+                mainWeight += candidate.weight;
+            } else {
+                unlinkFromBucket(candidate);
+                evictionCount++;
+            }
+        }
+
+        while (windowWeight + mainWeight > maximumWeight) {
+            Entry<K, V> victim = mainHead.after != mainHead ? mainHead.after : windowHead.after;
+            removeEntry(victim);
+            evictionCount++;
+        }
+    }
+
+    private void recordAccess(int hash) {
+        if (sketch != null) {
+            sketch.increment(hash);
+        }
+    }
+
+    private Entry<K, V> find(K key, int hash) {
+        Entry<K, V> current = buckets[hash & (buckets.length - 1)];
+        while (current != null) {
+            if (current.hash == hash && current.key.equals(key)) {
+                return current;
+            }
+            current = current.next;
+        }
+        return null;
+    }
+
+    private void removeEntry(Entry<K, V> entry) {
+        unlink(entry);
+        addWeight(entry, -entry.weight);
+        unlinkFromBucket(entry);
+    }
+
+    private void unlinkFromBucket(Entry<K, V> entry) {
+        int index = entry.hash & (buckets.length - 1);
+        Entry<K, V> current = buckets[index];
+        Entry<K, V> prev = null;
+
+        while (current != entry) {
+            prev = current;
+            current = current.next;
+        }
+
+        if (prev == null) {
+            buckets[index] = entry.next;
+        } else {
+            prev.next = entry.next;
+        }
+        size--;
+    }
+
+    private void addWeight(Entry<K, V> entry, long delta) {
+        if (entry.inWindow) {
+            windowWeight += delta;
+        } else {
+            mainWeight += delta;
+        }
+    }
+
+    private void moveToTail(Entry<K, V> entry) {
+        unlink(entry);
+        linkLast(entry.inWindow ? windowHead : mainHead, entry);
+    }
+
+    private void linkLast(Entry<K, V> head, Entry<K, V> entry) {
+        entry.before = head.before;
+        entry.after = head;
+        head.before.after = entry;
+        head.before = entry;
+    }
+
+    private static <K, V> void unlink(Entry<K, V> entry) {
+        entry.before.after = entry.after;
+        entry.after.before = entry.before;
+        entry.before = null;
+        entry.after = null;
+    }
+
+    private static <K, V> Entry<K, V> sentinel() {
+        Entry<K, V> head = new Entry<>(null, 0, null, 0);
+        head.before = head;
+        head.after = head;
+        return head;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resize() {
+        Entry<K, V>[] oldBuckets = buckets;
+        buckets = new Entry[oldBuckets.length * 2];
+
+        for (Entry<K, V> bucket : oldBuckets) {
+            Entry<K, V> current = bucket;
+            while (current != null) {
+                Entry<K, V> next = current.next;
+                int index = current.hash & (buckets.length - 1);
+                current.next = buckets[index];
+                buckets[index] = current;
+                current = next;
+            }
+        }
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+
+        // Least recently used first: window entries, then the main region
+        boolean first = true;
+        for (Entry<K, V> head : Arrays.asList(windowHead, mainHead)) {
+            for (Entry<K, V> e = head.after; e != head; e = e.after) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                sb.append(e.key).append("=").append(e.value);
+                first = false;
+            }
+        }
+
+        sb.append("}");
+        return sb.toString();
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters, sixteen to a long, with four hash rows.
+     * All counters are halved once the number of increments reaches ten times the
+     * table width, so old popularity fades. The table starts small and doubles as
+     * the cache holds more entries, since weight says nothing about entry count.
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+        };
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private static final int MAXIMUM_WIDTH = 1 << 24;
+
+        private long[] table;
+        private int tableMask;
+        private int sampleSize;
+        private int additions;
+
+        FrequencySketch(long expectedEntries) {
+            table = new long[0];
+            ensureCapacity(expectedEntries);
+        }
+
+        // Grows the table to at least one counter word per entry; counts restart from zero
+        void ensureCapacity(long expectedEntries) {
+            if (expectedEntries <= table.length || table.length >= MAXIMUM_WIDTH) {
+                return;
+            }
+            int width = 64;
+            while (width < Math.min(expectedEntries, MAXIMUM_WIDTH)) {
+                width <<= 1;
+            }
+            table = new long[width];
+            tableMask = width - 1;
+            sampleSize = 10 * width;
+            additions = 0;
+        }
+
+        int frequency(int hash) {
+            int frequency = Integer.MAX_VALUE;
+            for (int row = 0; row < SEEDS.length; row++) {
+                long h = mix(hash, row);
+                int index = (int) (h >>> 32) & tableMask;
+                int shift = ((int) h & 15) << 2;
+                frequency = Math.min(frequency, (int) ((table[index] >>> shift) & 15));
+            }
+            return frequency;
+        }
+
+        void increment(int hash) {
+            boolean added = false;
+            for (int row = 0; row < SEEDS.length; row++) {
+                long h = mix(hash, row);
+                int index = (int) (h >>> 32) & tableMask;
+                int shift = ((int) h & 15) << 2;
+                if (((table[index] >>> shift) & 15) < 15) {
+                    table[index] += 1L << shift;
+                    added = true;
+                }
+            }
+
+            if (added && ++additions >= sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & RESET_MASK;
+                }
+                additions /= 2;
+            }
+        }
+
+        private static long mix(int hash, int row) {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            return h ^ (h >>> 29);
+        }
+    }
+}
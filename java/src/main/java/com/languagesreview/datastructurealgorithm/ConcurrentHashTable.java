@@ -0,0 +1,375 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Thread-safe Hash Table with chaining, lock striping and lock-free reads.
+ *
+ * Bucket heads are published through an {@link AtomicReferenceArray} and chain links are
+ * immutable, so readers never block. Writers lock only the stripe owning the bucket.
+ * A bucket always belongs to stripe {@code hash & (stripes - 1)} no matter how large the
+ * table grows, which lets each stripe be migrated independently during a resize: writers
+ * move their own stripe first and then help with one unclaimed stripe per operation.
+ */
+public class ConcurrentHashTable<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int DEFAULT_CONCURRENCY = 16;
+    private static final double LOAD_FACTOR = 0.75;
+    private static final int MOVED = -1;
+
+    private static class Node<K, V> {
+        final int hash;
+        final K key;
+        volatile V value;
+        final Node<K, V> next;
+
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    // Left in an old bucket once its entries have been copied to the next table
+    private static class ForwardingNode<K, V> extends Node<K, V> {
+        final Table<K, V> target;
+
+        ForwardingNode(Table<K, V> target) {
+            super(MOVED, null, null, null);
+            this.target = target;
+        }
+    }
+
+    private static class Table<K, V> {
+        final AtomicReferenceArray<Node<K, V>> buckets;
+        final int threshold;
+
+        Table(int capacity) {
+            buckets = new AtomicReferenceArray<>(capacity);
+            threshold = (int) (capacity * LOAD_FACTOR);
+        }
+
+        int length() {
+            return buckets.length();
+        }
+    }
+
+    private static class Resize<K, V> {
+        final Table<K, V> from;
+        final Table<K, V> to;
+        final boolean[] migrated; // each slot guarded by its stripe lock
+        final AtomicInteger cursor = new AtomicInteger();
+        final AtomicInteger remaining;
+
+        Resize(Table<K, V> from, Table<K, V> to, int stripes) {
+            this.from = from;
+            this.to = to;
+            this.migrated = new boolean[stripes];
+            this.remaining = new AtomicInteger(stripes);
+        }
+    }
+
+    private final ReentrantLock[] locks;
+    private final int stripeMask;
+    private final LongAdder count = new LongAdder();
+    private final AtomicReference<Resize<K, V>> resize = new AtomicReference<>();
+    private volatile Table<K, V> table;
+
+    public ConcurrentHashTable() {
+        this(DEFAULT_CAPACITY, DEFAULT_CONCURRENCY);
+    }
+
+    public ConcurrentHashTable(int initialCapacity, int concurrencyLevel) {
+        if (initialCapacity < 0 || concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("Invalid capacity or concurrency level");
+        }
+
+        int stripes = powerOfTwoAtLeast(concurrencyLevel);
+        locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        stripeMask = stripes - 1;
+
+        int capacity = powerOfTwoAtLeast(Math.max(stripes, (int) Math.ceil(initialCapacity / LOAD_FACTOR)));
+        table = new Table<>(capacity);
+    }
+
+    public void put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+
+        int hash = hash(key);
+        ReentrantLock lock = locks[hash & stripeMask];
+        Table<K, V> t;
+        boolean added = true;
+
+        lock.lock();
+        try {
+            t = writableTable(hash);
+            int index = hash & (t.length() - 1);
+            Node<K, V> head = t.buckets.get(index);
+
+            for (Node<K, V> current = head; current != null; current = current.next) {
+                if (current.hash == hash && current.key.equals(key)) {
+                    current.value = value;
+                    added = false;
+                    break;
+                }
+            }
+
+            if (added) {
+                t.buckets.set(index, new Node<>(hash, key, value, head));
+                count.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (added && count.sum() >= t.threshold) {
+            startResize(t);
+        }
+        helpResize();
+    }
+
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+
+        int hash = hash(key);
+        Table<K, V> t = table;
+
+        while (true) {
+            Node<K, V> current = t.buckets.get(hash & (t.length() - 1));
+            if (current instanceof ForwardingNode) {
+                t = ((ForwardingNode<K, V>) current).target;
+                continue;
+            }
+
+            while (current != null) {
+                if (current.hash == hash && current.key.equals(key)) {
+                    return current.value;
+                }
+                current = current.next;
+            }
+            return null;
+        }
+    }
+
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+
+        int hash = hash(key);
+        ReentrantLock lock = locks[hash & stripeMask];
+        V oldValue = null;
+
+        lock.lock();
+        try {
+            Table<K, V> t = writableTable(hash);
+            int index = hash & (t.length() - 1);
+            Node<K, V> head = t.buckets.get(index);
+
+            Node<K, V> target = head;
+            while (target != null && !(target.hash == hash && target.key.equals(key))) {
+                target = target.next;
+            }
+
+            if (target != null) {
+                // Links are immutable, so rebuild the prefix in front of the removed node
+                Node<K, V> rebuilt = target.next;
+                for (Node<K, V> current = head; current != target; current = current.next) {
+                    rebuilt = new Node<>(current.hash, current.key, current.value, rebuilt);
+                }
+                t.buckets.set(index, rebuilt);
+                count.decrement();
+                oldValue = target.value;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        helpResize();
+        return oldValue;
+    }
+
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    public boolean containsValue(V value) {
+        boolean[] found = new boolean[1];
+        forEachNode(node -> {
+            if (Objects.equals(node.value, value)) {
+                found[0] = true;
+            }
+        });
+        return found[0];
+    }
+
+    public int size() {
+        long sum = count.sum();
+        return sum < 0 ? 0 : (int) Math.min(sum, Integer.MAX_VALUE);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+        try {
+            synchronized (this) {
+                table = new Table<>(table.length());
+                resize.set(null);
+                count.reset();
+            }
+        } finally {
+            for (ReentrantLock lock : locks) {
+                lock.unlock();
+            }
+        }
+    }
+
+    public Set<K> keySet() {
+        Set<K> keys = new HashSet<>();
+        forEachNode(node -> keys.add(node.key));
+        return keys;
+    }
+
+    public Collection<V> values() {
+        List<V> values = new ArrayList<>();
+        forEachNode(node -> values.add(node.value));
+        return values;
+    }
+
+    // Must be called with the stripe lock for hash held
+    private Table<K, V> writableTable(int hash) {
+        Resize<K, V> r = resize.get();
+        if (r == null) {
+            return table;
+        }
+        migrateStripe(r, hash & stripeMask);
+        return r.to;
+    }
+
+    private void startResize(Table<K, V> t) {
+        synchronized (this) {
+            if (table == t && resize.get() == null) {
+                resize.set(new Resize<>(t, new Table<>(t.length() * 2), locks.length));
+            }
+        }
+    }
+
+    private void helpResize() {
+        Resize<K, V> r = resize.get();
+        if (r == null) {
+            return;
+        }
+
+        int stripe = r.cursor.getAndIncrement();
+        if (stripe < locks.length) {
+            ReentrantLock lock = locks[stripe];
+            lock.lock();
+            try {
+                migrateStripe(r, stripe);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Must be called with the lock for the given stripe held
+    private void migrateStripe(Resize<K, V> r, int stripe) {
+        if (r.migrated[stripe]) {
+            return;
+        }
+
+        int toMask = r.to.length() - 1;
+        ForwardingNode<K, V> forward = new ForwardingNode<>(r.to);
+
+        for (int index = stripe; index < r.from.length(); index += locks.length) {
+            for (Node<K, V> current = r.from.buckets.get(index); current != null; current = current.next) {
+                int target = current.hash & toMask;
+                r.to.buckets.set(target, new Node<>(current.hash, current.key, current.value,
+                        r.to.buckets.get(target)));
+            }
+            r.from.buckets.set(index, forward);
+        }
+        r.migrated[stripe] = true;
+
+        if (r.remaining.decrementAndGet() == 0) {
+            synchronized (this) {
+                if (resize.get() == r) {
+                    table = r.to;
+                    resize.set(null);
+                }
+            }
+        }
+    }
+
+    private void forEachNode(Consumer<Node<K, V>> action) {
+        Table<K, V> t = table;
+        for (int i = 0; i < t.length(); i++) {
+            visitBucket(t, i, action);
+        }
+    }
+
+    private void visitBucket(Table<K, V> t, int index, Consumer<Node<K, V>> action) {
+        Node<K, V> current = t.buckets.get(index);
+        if (current instanceof ForwardingNode) {
+            // Old bucket i splits into buckets i and i + oldLength of the doubled table
+            Table<K, V> target = ((ForwardingNode<K, V>) current).target;
+            visitBucket(target, index, action);
+            visitBucket(target, index + t.length(), action);
+            return;
+        }
+
+        while (current != null) {
+            action.accept(current);
+            current = current.next;
+        }
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & Integer.MAX_VALUE;
+    }
+
+    private static int powerOfTwoAtLeast(int n) {
+        int result = 1;
+        while (result < n) {
+            result <<= 1;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        forEachNode(node -> {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(node.key).append("=").append(node.value);
+        });
+        sb.append("}");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,19 @@
+package com.languagesreview.datastructurealgorithm;
+
+/**
+ * Priority queue of values ordered by long keys that many threads can insert into and
+ * extract from at once. Values must not be null.
+ *
+ * extractMin returns null when the queue looks empty, since with concurrent inserts
+ * emptiness can change between a check and the call. size is an estimate while other
+ * threads are active.
+ */
+public interface ConcurrentMinQueue<T> {
+    void insert(long key, T value);
+    
+    T extractMin();
+    
+    boolean isEmpty();
+    
+    int size();
+}
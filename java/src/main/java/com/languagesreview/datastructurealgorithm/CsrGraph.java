@@ -0,0 +1,448 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.util.*;
+
+/**
+ * Immutable graph in compressed sparse row form: the neighbors of vertex v are
+ * {@code targets[offsets[v] .. offsets[v + 1])}, with optional int or float weights in a
+ * parallel array. An edge costs 4 bytes (plus 4 for a weight) instead of a list node and
+ * a boxed Integer, and scanning a vertex's neighbors reads one contiguous range.
+ *
+ * Built from an edge list by {@link Builder}, which counts degrees in one pass and
+ * fills the rows in a second. An undirected graph stores each edge in both rows, in
+ * the order the edges were added, so traversals visit neighbors in the same order as
+ * {@link Graph}. Traversals are iterative, so long paths cannot overflow the stack.
+ */
+public final class CsrGraph {
+    private final int vertexCount;
+    private final boolean directed;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] intWeights;     // null unless built with int weights
+    private final float[] floatWeights; // null unless built with float weights
+    
+    private CsrGraph(int vertexCount, boolean directed, int[] offsets, int[] targets,
+                     int[] intWeights, float[] floatWeights) {
+        this.vertexCount = vertexCount;
+        this.directed = directed;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.intWeights = intWeights;
+        this.floatWeights = floatWeights;
+    }
+    
+    public static Builder builder(int vertexCount, boolean directed) {
+        return new Builder(vertexCount, directed, 16);
+    }
+    
+    public static Builder builder(int vertexCount, boolean directed, int expectedEdges) {
+        return new Builder(vertexCount, directed, expectedEdges);
+    }
+    
+    public int vertexCount() {
+        return vertexCount;
+    }
+    
+    // Stored adjacency entries: twice the edge count for an undirected graph
+    public int arcCount() {
+        return targets.length;
+    }
+    
+    public boolean isDirected() {
+        return directed;
+    }
+    
+    public boolean hasIntWeights() {
+        return intWeights != null;
+    }
+    
+    public boolean hasFloatWeights() {
+        return floatWeights != null;
+    }
+    
+    public int degree(int v) {
+        checkVertex(v);
+        return offsets[v + 1] - offsets[v];
+    }
+    
+    public int neighbor(int v, int i) {
+        if (i < 0 || i >= degree(v)) {
+            throw new IndexOutOfBoundsException("Neighbor index " + i + " out of range for vertex " + v);
+        }
+        return targets[offsets[v] + i];
+    }
+    
+    public int[] neighbors(int v) {
+        checkVertex(v);
+        return Arrays.copyOfRange(targets, offsets[v], offsets[v + 1]);
+    }
+    
+    // Vertices in depth-first order from start, matching the recursive Graph.dfs
+    public int[] dfs(int start) {
+        checkVertex(start);
+        boolean[] visited = new boolean[vertexCount];
+        int[] order = new int[vertexCount];
+        int visitedCount = 0;
+        // Each frame is a vertex and the position of the next edge to try
+        int[] stack = new int[vertexCount];
+        int[] cursor = new int[vertexCount];
+        int depth = 0;
+        
+        visited[start] = true;
+        order[visitedCount++] = start;
+        stack[depth] = start;
+        cursor[depth++] = offsets[start];
+        
+        while (depth > 0) {
+            int v = stack[depth - 1];
+            int edge = cursor[depth - 1];
+            if (edge == offsets[v + 1]) {
+                depth--;
+                continue;
+            }
+            
+            cursor[depth - 1] = edge + 1;
+            int w = targets[edge];
+            if (!visited[w]) {
+                visited[w] = true;
+                order[visitedCount++] = w;
+                stack[depth] = w;
+                cursor[depth++] = offsets[w];
+            }
+        }
+        
+        return Arrays.copyOf(order, visitedCount);
+    }
+    
+    public int[] bfs(int start) {
+        checkVertex(start);
+        boolean[] visited = new boolean[vertexCount];
+        // The visit order doubles as the queue
+        int[] queue = new int[vertexCount];
+        int head = 0;
+        int tail = 0;
+        
+        visited[start] = true;
+        queue[tail++] = start;
+        
+        while (head < tail) {
+            int v = queue[head++];
+            for (int edge = offsets[v]; edge < offsets[v + 1]; edge++) {
+                int w = targets[edge];
+                if (!visited[w]) {
+                    visited[w] = true;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        
+        return Arrays.copyOf(queue, tail);
+    }
+    
+    /**
+     * Directed graphs have a cycle when depth-first search meets a vertex still on its
+     * path. Undirected graphs use the same rule as {@link Graph#hasCycle()}: meeting any
+     * visited vertex other than the one just came from.
+     */
+    public boolean hasCycle() {
+        byte[] state = new byte[vertexCount]; // 0 unvisited, 1 on the current path, 2 done
+        int[] stack = new int[vertexCount];
+        int[] cursor = new int[vertexCount];
+        
+        for (int root = 0; root < vertexCount; root++) {
+            if (state[root] != 0) {
+                continue;
+            }
+            
+            int depth = 0;
+            state[root] = 1;
+            stack[depth] = root;
+            cursor[depth++] = offsets[root];
+            
+            while (depth > 0) {
+                int v = stack[depth - 1];
+                int edge = cursor[depth - 1];
+                if (edge == offsets[v + 1]) {
+                    state[v] = 2;
+                    depth--;
+                    continue;
+                }
+                
+                cursor[depth - 1] = edge + 1;
+                int w = targets[edge];
+                if (state[w] == 0) {
+                    state[w] = 1;
+                    stack[depth] = w;
+                    cursor[depth++] = offsets[w];
+                } else if (directed ? state[w] == 1 : depth < 2 || w != stack[depth - 2]) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Hop counts from start, ignoring any weights, with Integer.MAX_VALUE for unreachable
+     * vertices: the same result as {@link Graph#shortestPath(int)}, found by breadth-first
+     * search since every edge costs one.
+     */
+    public int[] shortestPath(int start) {
+        checkVertex(start);
+        int[] dist = new int[vertexCount];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        int[] queue = new int[vertexCount];
+        int head = 0;
+        int tail = 0;
+        
+        dist[start] = 0;
+        queue[tail++] = start;
+        
+        while (head < tail) {
+            int v = queue[head++];
+            for (int edge = offsets[v]; edge < offsets[v + 1]; edge++) {
+                int w = targets[edge];
+                if (dist[w] == Integer.MAX_VALUE) {
+                    dist[w] = dist[v] + 1;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        
+        return dist;
+    }
+    
+    /**
+     * Dijkstra over non-negative int weights, with Long.MAX_VALUE for unreachable vertices.
+     * Distances only grow as vertices are settled, so the frontier is a {@link RadixHeap}
+     * with lazy duplicates.
+     */
+    public long[] intWeightedShortestPath(int start) {
+        checkVertex(start);
+        if (intWeights == null && targets.length > 0) {
+            throw new IllegalStateException("Graph has no int weights");
+        }
+        
+        long[] dist = new long[vertexCount];
+        Arrays.fill(dist, Long.MAX_VALUE);
+        dist[start] = 0;
+        RadixHeap frontier = new RadixHeap();
+        frontier.insert(0, start);
+        
+        while (!frontier.isEmpty()) {
+            long d = frontier.getMinKey();
+            int v = (int) frontier.extractMinPayload();
+            if (d != dist[v]) {
+                continue; // superseded by a shorter path
+            }
+            for (int edge = offsets[v]; edge < offsets[v + 1]; edge++) {
+                int weight = intWeights[edge];
+                if (weight < 0) {
+                    throw new IllegalStateException("Negative edge weight " + weight);
+                }
+                int w = targets[edge];
+                long candidate = d + weight;
+                if (candidate < dist[w]) {
+                    dist[w] = candidate;
+                    frontier.insert(candidate, w);
+                }
+            }
+        }
+        
+        return dist;
+    }
+    
+    /**
+     * Dijkstra over non-negative float weights, with infinity for unreachable vertices.
+     * The frontier is an {@link IndexedMinHeap} keyed by the raw bits of each distance,
+     * which order like the values themselves for non-negative doubles.
+     */
+    public double[] floatWeightedShortestPath(int start) {
+        checkVertex(start);
+        if (floatWeights == null && targets.length > 0) {
+            throw new IllegalStateException("Graph has no float weights");
+        }
+        
+        double[] dist = new double[vertexCount];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[start] = 0;
+        IndexedMinHeap frontier = new IndexedMinHeap(vertexCount);
+        frontier.insert(start, Double.doubleToRawLongBits(0.0));
+        
+        while (!frontier.isEmpty()) {
+            int v = frontier.extractMin();
+            for (int edge = offsets[v]; edge < offsets[v + 1]; edge++) {
+                float weight = floatWeights[edge];
+                if (!(weight >= 0)) {
+                    throw new IllegalStateException("Negative or NaN edge weight " + weight);
+                }
+                int w = targets[edge];
+                double candidate = dist[v] + weight;
+                if (candidate < dist[w]) {
+                    if (frontier.contains(w)) {
+                        frontier.decreaseKey(w, Double.doubleToRawLongBits(candidate));
+                    } else {
+                        frontier.insert(w, Double.doubleToRawLongBits(candidate));
+                    }
+                    dist[w] = candidate;
+                }
+            }
+        }
+        
+        return dist;
+    }
+    
+    private void checkVertex(int v) {
+        if (v < 0 || v >= vertexCount) {
+            throw new IllegalArgumentException("Vertex " + v + " out of range [0, " + vertexCount + ")");
+        }
+    }
+    
+    /**
+     * Collects edges in growable primitive arrays, then builds the graph in two passes:
+     * count each row's size and prefix-sum the counts into offsets, then drop every edge
+     * into the next free position of its row. A builder builds one graph.
+     */
+    public static final class Builder {
+        private static final int MAX_ARCS = Integer.MAX_VALUE - 8;
+        
+        private final int vertexCount;
+        private final boolean directed;
+        private int[] sources;
+        private int[] destinations;
+        private int[] intWeights;
+        private float[] floatWeights;
+        private int edgeCount;
+        private boolean built;
+        
+        private Builder(int vertexCount, boolean directed, int expectedEdges) {
+            if (vertexCount < 0) {
+                throw new IllegalArgumentException("Vertex count cannot be negative");
+            }
+            if (expectedEdges < 0) {
+                throw new IllegalArgumentException("Expected edges cannot be negative");
+            }
+            this.vertexCount = vertexCount;
+            this.directed = directed;
+            this.sources = new int[Math.max(16, expectedEdges)];
+            this.destinations = new int[sources.length];
+        }
+        
+        public Builder addEdge(int from, int to) {
+            if (intWeights != null || floatWeights != null) {
+                throw new IllegalStateException("Weighted graph needs a weight on every edge");
+            }
+            append(from, to);
+            return this;
+        }
+        
+        public Builder addEdge(int from, int to, int weight) {
+            if (floatWeights != null || (edgeCount > 0 && intWeights == null)) {
+                throw new IllegalStateException("All edges must have int weights");
+            }
+            if (intWeights == null) {
+                intWeights = new int[sources.length];
+            }
+            append(from, to);
+            intWeights[edgeCount - 1] = weight;
+            return this;
+        }
+        
+        public Builder addEdge(int from, int to, float weight) {
+            if (intWeights != null || (edgeCount > 0 && floatWeights == null)) {
+                throw new IllegalStateException("All edges must have float weights");
+            }
+            if (floatWeights == null) {
+                floatWeights = new float[sources.length];
+            }
+            append(from, to);
+            floatWeights[edgeCount - 1] = weight;
+            return this;
+        }
+        
+        public CsrGraph build() {
+            checkNotBuilt();
+            built = true;
+            long arcs = directed ? edgeCount : 2L * edgeCount;
+            if (arcs > MAX_ARCS) {
+                throw new IllegalStateException("Graph would need " + arcs + " adjacency entries");
+            }
+            
+            // Pass 1: row sizes, prefix-summed into offsets
+            int[] offsets = new int[vertexCount + 1];
+            for (int e = 0; e < edgeCount; e++) {
+                offsets[sources[e] + 1]++;
+                if (!directed) {
+                    offsets[destinations[e] + 1]++;
+                }
+            }
+            for (int v = 0; v < vertexCount; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+            
+            // Pass 2: fill each row in edge order
+            int[] targets = new int[(int) arcs];
+            int[] ints = intWeights == null ? null : new int[(int) arcs];
+            float[] floats = floatWeights == null ? null : new float[(int) arcs];
+            int[] next = Arrays.copyOf(offsets, vertexCount);
+            for (int e = 0; e < edgeCount; e++) {
+                int from = sources[e];
+                int to = destinations[e];
+                int slot = next[from]++;
+                targets[slot] = to;
+                copyWeight(e, slot, ints, floats);
+                if (!directed) {
+                    slot = next[to]++;
+                    targets[slot] = from;
+                    copyWeight(e, slot, ints, floats);
+                }
+            }
+            
+            // Let the edge list go before the caller drops the builder
+            sources = null;
+            destinations = null;
+            intWeights = null;
+            floatWeights = null;
+            return new CsrGraph(vertexCount, directed, offsets, targets, ints, floats);
+        }
+        
+        private void copyWeight(int edge, int slot, int[] ints, float[] floats) {
+            if (ints != null) {
+                ints[slot] = intWeights[edge];
+            } else if (floats != null) {
+                floats[slot] = floatWeights[edge];
+            }
+        }
+        
+        private void append(int from, int to) {
+            checkNotBuilt();
+            if (from < 0 || from >= vertexCount || to < 0 || to >= vertexCount) {
+                throw new IllegalArgumentException("Edge " + from + " -> " + to + " out of range [0, "
+                        + vertexCount + ")");
+            }
+            if (edgeCount == sources.length) {
+                int capacity = (int) Math.min(MAX_ARCS, sources.length + (sources.length >> 1) + 1L);
+                if (capacity == edgeCount) {
+                    throw new IllegalStateException("Too many edges");
+                }
+                sources = Arrays.copyOf(sources, capacity);
+                destinations = Arrays.copyOf(destinations, capacity);
+                if (intWeights != null) {
+                    intWeights = Arrays.copyOf(intWeights, capacity);
+                }
+                if (floatWeights != null) {
+                    floatWeights = Arrays.copyOf(floatWeights, capacity);
+                }
+            }
+            sources[edgeCount] = from;
+            destinations[edgeCount] = to;
+            edgeCount++;
+        }
+        
+        private void checkNotBuilt() {
+            if (built) {
+                throw new IllegalStateException("Builder has already built its graph");
+            }
+        }
+    }
+}
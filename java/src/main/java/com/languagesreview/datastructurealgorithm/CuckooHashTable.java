@@ -0,0 +1,570 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.lang.invoke.VarHandle;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bucketized cuckoo Hash Table: every key lives in one of the four slots of one of its
+ * two candidate buckets, or in a small stash, so a lookup reads at most two buckets
+ * (plus the stash when it is non-empty) no matter how keys collide.
+ *
+ * Inserts that find both buckets full search breadth-first for a short chain of
+ * displacements ending at a free slot, then perform it backwards so every key stays
+ * reachable throughout. When no chain exists and the stash is full, one larger table is
+ * tried; if that does not help either (many keys share a hash), the stash simply grows,
+ * so no key is ever refused. Lookups take no lock: they read the buckets optimistically and
+ * retry if a writer bumped the version counter of either bucket meanwhile. Writers are
+ * serialized by a single lock.
+ */
+public class CuckooHashTable<K, V> {
+    private static final int SLOTS = 4;
+    private static final int DEFAULT_BUCKETS = 4;
+    private static final double LOAD_FACTOR = 0.9;
+    private static final int STASH_SIZE = 8; // stash entries held before growing is tried
+    private static final int MAXIMUM_BUCKETS = 1 << 28;
+    private static final int MAX_SEARCH = 512; // buckets visited by one displacement search
+    private static final int MAX_STRIPES = 1024;
+    private static final Object NOT_FOUND = new Object();
+
+    private volatile Table table;
+    private volatile int size;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public CuckooHashTable() {
+        this(0);
+    }
+
+    public CuckooHashTable(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative");
+        }
+        int buckets = DEFAULT_BUCKETS;
+        while (buckets < MAXIMUM_BUCKETS && buckets * SLOTS * LOAD_FACTOR < expectedSize) {
+            buckets <<= 1;
+        }
+        table = new Table(buckets);
+    }
+
+    public void put(K key, V value) {
+        int hash = hash(key);
+        writeLock.lock();
+        try {
+            Table t = table;
+            if (t.replace(hash, key, value)) {
+                return;
+            }
+
+            if (size >= t.threshold && t.mask + 1 < MAXIMUM_BUCKETS) {
+                t = grow(t);
+                table = t;
+            }
+            if (!t.insert(hash, key, value)) {
+                // Only a stash that just filled is worth a rebuild; once it overflows, the
+                // keys there share hashes and a larger table would not place them either
+                Table grown = t.stashSize == STASH_SIZE && t.mask + 1 < MAXIMUM_BUCKETS ? grow(t) : null;
+                if (grown != null && grown.stashSize < STASH_SIZE && grown.insert(hash, key, value)) {
+                    table = grown;
+                } else {
+                    t.overflow(hash, key, value);
+                }
+            }
+            size++;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        Object value = find(key);
+        return value == NOT_FOUND ? null : (V) value;
+    }
+
+    public boolean containsKey(K key) {
+        return find(key) != NOT_FOUND;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        int hash = hash(key);
+        writeLock.lock();
+        try {
+            Object oldValue = table.remove(hash, key);
+            if (oldValue == NOT_FOUND) {
+                return null;
+            }
+            size--;
+            return (V) oldValue;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        writeLock.lock();
+        try {
+            table = new Table(DEFAULT_BUCKETS);
+            size = 0;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public Set<K> keySet() {
+        Set<K> keys = new HashSet<>();
+        writeLock.lock();
+        try {
+            Table t = table;
+            for (Object key : t.keys) {
+                if (key != null) {
+                    keys.add((K) key);
+                }
+            }
+            for (int i = 0; i < t.stashSize; i++) {
+                keys.add((K) t.stashKeys[i]);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        return keys;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Collection<V> values() {
+        List<V> values = new ArrayList<>(size);
+        writeLock.lock();
+        try {
+            Table t = table;
+            for (int i = 0; i < t.keys.length; i++) {
+                if (t.keys[i] != null) {
+                    values.add((V) t.values[i]);
+                }
+            }
+            for (int i = 0; i < t.stashSize; i++) {
+                values.add((V) t.stashValues[i]);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        return values;
+    }
+
+    // Optimistic read: retry until neither bucket nor the stash changed while reading
+    private Object find(K key) {
+        int hash = hash(key);
+        while (true) {
+            Table t = table;
+            int first = t.bucket1(hash);
+            int second = t.bucket2(hash);
+            long firstVersion = t.versions.get(t.stripe(first));
+            long secondVersion = t.versions.get(t.stripe(second));
+            long stashVersion = t.versions.get(t.stashStripe);
+
+            if (((firstVersion | secondVersion | stashVersion) & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            Object value = t.findInBucket(first, hash, key);
+            if (value == NOT_FOUND) {
+                value = t.findInBucket(second, hash, key);
+            }
+            if (value == NOT_FOUND) {
+                value = t.findInStash(hash, key);
+            }
+
+            // Order the reads above before re-checking the versions
+            VarHandle.acquireFence();
+            if (t.versions.get(t.stripe(first)) == firstVersion
+                    && t.versions.get(t.stripe(second)) == secondVersion
+                    && t.versions.get(t.stashStripe) == stashVersion) {
+                return value;
+            }
+        }
+    }
+
+    // Rebuilds into a table twice the size; the caller decides whether to publish it
+    private static Table grow(Table old) {
+        Table t = new Table((old.mask + 1) * 2);
+        t.copyFrom(old);
+        return t;
+    }
+
+    private static int hash(Object key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // Second, independent hash for the alternate bucket
+    private static int rehash(int hash) {
+        int h = (hash ^ (hash >>> 15)) * 0x2C1B3C6D;
+        h = (h ^ (h >>> 12)) * 0x297A2D39;
+        return h ^ (h >>> 15);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+
+        writeLock.lock();
+        try {
+            Table t = table;
+            boolean first = true;
+            for (int i = 0; i < t.keys.length; i++) {
+                if (t.keys[i] != null) {
+                    if (!first) {
+                        sb.append(", ");
+                    }
+                    sb.append(t.keys[i]).append("=").append(t.values[i]);
+                    first = false;
+                }
+            }
+            for (int i = 0; i < t.stashSize; i++) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                sb.append(t.stashKeys[i]).append("=").append(t.stashValues[i]);
+                first = false;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+
+        sb.append("}");
+        return sb.toString();
+    }
+
+    /**
+     * One generation of the table. Slot {@code b * SLOTS + s} is slot s of bucket b; a null
+     * key marks a free slot. Writers make a stripe's version odd while they modify any
+     * bucket (or the stash) mapped to it.
+     */
+    private static final class Table {
+        final int[] hashes;
+        final Object[] keys;
+        final Object[] values;
+        final int mask;
+        final int threshold;
+
+        // Replaced by larger arrays when the stash overflows, inside a stash write section
+        int[] stashHashes = new int[STASH_SIZE];
+        Object[] stashKeys = new Object[STASH_SIZE];
+        Object[] stashValues = new Object[STASH_SIZE];
+        int stashSize;
+
+        final AtomicLongArray versions;
+        final int stripeMask;
+        final int stashStripe;
+
+        // Breadth-first search state, reused across inserts
+        private final int[] searchBucket = new int[MAX_SEARCH];
+        private final int[] searchParent = new int[MAX_SEARCH];
+        private final int[] searchSlot = new int[MAX_SEARCH];
+
+        Table(int buckets) {
+            hashes = new int[buckets * SLOTS];
+            keys = new Object[buckets * SLOTS];
+            values = new Object[buckets * SLOTS];
+            mask = buckets - 1;
+            threshold = (int) (buckets * SLOTS * LOAD_FACTOR);
+
+            int stripes = Math.min(buckets, MAX_STRIPES);
+            stripeMask = stripes - 1;
+            stashStripe = stripes;
+            versions = new AtomicLongArray(stripes + 1);
+        }
+
+        int bucket1(int hash) {
+            return hash & mask;
+        }
+
+        int bucket2(int hash) {
+            return rehash(hash) & mask;
+        }
+
+        int stripe(int bucket) {
+            return bucket & stripeMask;
+        }
+
+        private int alternate(int hash, int bucket) {
+            int first = bucket1(hash);
+            return bucket == first ? bucket2(hash) : first;
+        }
+
+        Object findInBucket(int bucket, int hash, Object key) {
+            int base = bucket * SLOTS;
+            for (int i = base; i < base + SLOTS; i++) {
+                Object k = keys[i];
+                if (hashes[i] == hash && k != null && key.equals(k)) {
+                    return values[i];
+                }
+            }
+            return NOT_FOUND;
+        }
+
+        Object findInStash(int hash, Object key) {
+            // A racing writer may swap the arrays; the caller's version check rejects the result
+            int[] h = stashHashes;
+            Object[] k = stashKeys;
+            Object[] v = stashValues;
+            int count = Math.min(stashSize, Math.min(h.length, Math.min(k.length, v.length)));
+            for (int i = 0; i < count; i++) {
+                Object candidate = k[i];
+                if (h[i] == hash && candidate != null && key.equals(candidate)) {
+                    return v[i];
+                }
+            }
+            return NOT_FOUND;
+        }
+
+        // Slot of the key in either of its buckets, or -1
+        private int slotOf(int hash, Object key) {
+            int slot = slotOf(bucket1(hash), hash, key);
+            return slot >= 0 ? slot : slotOf(bucket2(hash), hash, key);
+        }
+
+        private int slotOf(int bucket, int hash, Object key) {
+            int base = bucket * SLOTS;
+            for (int i = base; i < base + SLOTS; i++) {
+                if (hashes[i] == hash && keys[i] != null && keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int stashSlotOf(int hash, Object key) {
+            for (int i = 0; i < stashSize; i++) {
+                if (stashHashes[i] == hash && stashKeys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int freeSlot(int bucket) {
+            int base = bucket * SLOTS;
+            for (int i = base; i < base + SLOTS; i++) {
+                if (keys[i] == null) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // Overwrites the value of an existing key; false if the key is absent
+        boolean replace(int hash, Object key, Object value) {
+            int slot = slotOf(hash, key);
+            if (slot >= 0) {
+                int stripe = stripe(slot / SLOTS);
+                beginWrite(stripe);
+                values[slot] = value;
+                endWrite(stripe);
+                return true;
+            }
+
+            slot = stashSlotOf(hash, key);
+            if (slot >= 0) {
+                beginWrite(stashStripe);
+                stashValues[slot] = value;
+                endWrite(stashStripe);
+                return true;
+            }
+            return false;
+        }
+
+        // Adds an absent key; false when neither a displacement chain nor the stash has room,
+        // in which case the caller grows the table or calls overflow
+        boolean insert(int hash, Object key, Object value) {
+            int slot = freeSlot(bucket1(hash));
+            if (slot < 0) {
+                slot = freeSlot(bucket2(hash));
+            }
+            if (slot < 0) {
+                slot = makeRoom(hash);
+            }
+
+            if (slot >= 0) {
+                int stripe = stripe(slot / SLOTS);
+                beginWrite(stripe);
+                hashes[slot] = hash;
+                keys[slot] = key;
+                values[slot] = value;
+                endWrite(stripe);
+                return true;
+            }
+
+            if (stashSize < STASH_SIZE) {
+                beginWrite(stashStripe);
+                stashHashes[stashSize] = hash;
+                stashKeys[stashSize] = key;
+                stashValues[stashSize] = value;
+                stashSize++;
+                endWrite(stashStripe);
+                return true;
+            }
+            return false;
+        }
+
+        // Appends an absent key to the stash past its usual size, growing the stash arrays
+        void overflow(int hash, Object key, Object value) {
+            beginWrite(stashStripe);
+            if (stashSize == stashKeys.length) {
+                stashHashes = Arrays.copyOf(stashHashes, stashSize * 2);
+                stashKeys = Arrays.copyOf(stashKeys, stashSize * 2);
+                stashValues = Arrays.copyOf(stashValues, stashSize * 2);
+            }
+            stashHashes[stashSize] = hash;
+            stashKeys[stashSize] = key;
+            stashValues[stashSize] = value;
+            stashSize++;
+            endWrite(stashStripe);
+        }
+
+        /**
+         * Searches breadth-first from the key's two buckets for a bucket with a free slot,
+         * then shifts each entry on the path one step towards it, starting at the far end.
+         * Returns the slot freed in one of the key's buckets, or -1 if none was found.
+         */
+        private int makeRoom(int hash) {
+            int tail = 0;
+            searchBucket[tail] = bucket1(hash);
+            searchParent[tail++] = -1;
+            if (bucket2(hash) != bucket1(hash)) {
+                searchBucket[tail] = bucket2(hash);
+                searchParent[tail++] = -1;
+            }
+
+            for (int head = 0; head < tail; head++) {
+                int bucket = searchBucket[head];
+                for (int s = 0; s < SLOTS; s++) {
+                    int slot = bucket * SLOTS + s;
+                    int next = alternate(hashes[slot], bucket);
+                    if (next == bucket || visited(next, tail)) {
+                        continue;
+                    }
+
+                    int free = freeSlot(next);
+                    if (free >= 0) {
+                        return shiftPath(head, slot, free);
+                    }
+                    if (tail < MAX_SEARCH) {
+                        searchBucket[tail] = next;
+                        searchParent[tail] = head;
+                        searchSlot[tail++] = s;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        private boolean visited(int bucket, int count) {
+            for (int i = 0; i < count; i++) {
+                if (searchBucket[i] == bucket) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int shiftPath(int node, int slot, int free) {
+            while (true) {
+                move(slot, free);
+                free = slot;
+                if (searchParent[node] < 0) {
+                    return free;
+                }
+                slot = searchBucket[searchParent[node]] * SLOTS + searchSlot[node];
+                node = searchParent[node];
+            }
+        }
+
+        // Copies the entry before clearing its old slot, inside both buckets' write sections
+        private void move(int from, int to) {
+            int fromStripe = stripe(from / SLOTS);
+            int toStripe = stripe(to / SLOTS);
+            beginWrite(fromStripe);
+            if (toStripe != fromStripe) {
+                beginWrite(toStripe);
+            }
+
+            hashes[to] = hashes[from];
+            keys[to] = keys[from];
+            values[to] = values[from];
+            keys[from] = null;
+            values[from] = null;
+
+            if (toStripe != fromStripe) {
+                endWrite(toStripe);
+            }
+            endWrite(fromStripe);
+        }
+
+        Object remove(int hash, Object key) {
+            int slot = slotOf(hash, key);
+            if (slot >= 0) {
+                Object oldValue = values[slot];
+                int stripe = stripe(slot / SLOTS);
+                beginWrite(stripe);
+                keys[slot] = null;
+                values[slot] = null;
+                endWrite(stripe);
+                return oldValue;
+            }
+
+            slot = stashSlotOf(hash, key);
+            if (slot < 0) {
+                return NOT_FOUND;
+            }
+
+            Object oldValue = stashValues[slot];
+            int last = stashSize - 1;
+            beginWrite(stashStripe);
+            stashHashes[slot] = stashHashes[last];
+            stashKeys[slot] = stashKeys[last];
+            stashValues[slot] = stashValues[last];
+            stashKeys[last] = null;
+            stashValues[last] = null;
+            stashSize = last;
+            endWrite(stashStripe);
+            return oldValue;
+        }
+
+        // Fills this unpublished table from an older one, overflowing the stash if needed
+        void copyFrom(Table old) {
+            for (int i = 0; i < old.keys.length; i++) {
+                if (old.keys[i] != null && !insert(old.hashes[i], old.keys[i], old.values[i])) {
+                    overflow(old.hashes[i], old.keys[i], old.values[i]);
+                }
+            }
+            for (int i = 0; i < old.stashSize; i++) {
+                if (!insert(old.stashHashes[i], old.stashKeys[i], old.stashValues[i])) {
+                    overflow(old.stashHashes[i], old.stashKeys[i], old.stashValues[i]);
+                }
+            }
+        }
+
+        private void beginWrite(int stripe) {
+            versions.incrementAndGet(stripe);
+        }
+
+        private void endWrite(int stripe) {
+            versions.incrementAndGet(stripe);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.util.*;
+
+/**
+ * Growable d-ary Min Heap of ints (d a power of two, 4 by default).
+ *
+ * A wider node makes the tree log2(d) times shallower, and the d children of a node are
+ * stored contiguously starting at an index that is a multiple of d (the root sits at
+ * index d - 1), so a sift-down step scans one aligned group instead of taking a cache
+ * miss per binary level. With d = 16 a group spans exactly 64 bytes; the JVM only
+ * aligns arrays to 8 bytes, so such a group may still straddle two cache lines.
+ */
+public class DaryMinHeap {
+    private static final int DEFAULT_ARITY = 4;
+    private static final int DEFAULT_CAPACITY = 16;
+    
+    private final int arity;
+    private final int shift;  // log2(arity)
+    private final int root;   // array index of the root, arity - 1
+    private int[] heap;
+    private int end;          // one past the last element's array index
+    
+    public DaryMinHeap() {
+        this(DEFAULT_ARITY, DEFAULT_CAPACITY);
+    }
+    
+    public DaryMinHeap(int arity, int initialCapacity) {
+        if (arity < 2 || arity > 64 || Integer.bitCount(arity) != 1) {
+            throw new IllegalArgumentException("Arity must be a power of two between 2 and 64");
+        }
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+        
+        this.arity = arity;
+        this.shift = Integer.numberOfTrailingZeros(arity);
+        this.root = arity - 1;
+        this.heap = new int[root + Math.max(1, initialCapacity)];
+        this.end = root;
+    }
+    
+    public void insert(int value) {
+        if (end == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length + (heap.length >> 1) + 1);
+        }
+        
+        int index = end++;
+        while (index > root) {
+            int parent = parentOf(index);
+            int parentValue = heap[parent];
+            if (parentValue <= value) {
+                break;
+            }
+            heap[index] = parentValue;
+            index = parent;
+        }
+        heap[index] = value;
+    }
+    
+    public int extractMin() {
+        int min = getMin();
+        int last = heap[--end];
+        if (end > root) {
+            siftDown(last);
+        }
+        return min;
+    }
+    
+    public int getMin() {
+        if (end == root) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        return heap[root];
+    }
+    
+    public boolean isEmpty() {
+        return end == root;
+    }
+    
+    public int size() {
+        return end - root;
+    }
+    
+    public int arity() {
+        return arity;
+    }
+    
+    public void clear() {
+        end = root;
+    }
+    
+    // Moves the hole at the root down, then drops value into it
+    private void siftDown(int value) {
+        int index = root;
+        
+        while (true) {
+            int first = firstChildOf(index);
+            if (first >= end) {
+                break;
+            }
+            
+            // Scan the aligned group of children; the compare-and-select has no data-dependent branch
+            int limit = Math.min(first + arity, end);
+            int smallest = first;
+            int smallestValue = heap[first];
+            for (int child = first + 1; child < limit; child++) {
+                int childValue = heap[child];
+                boolean smaller = childValue < smallestValue;
+                smallest = smaller ? child : smallest;
+                smallestValue = smaller ? childValue : smallestValue;
+            }
+            
+            if (value <= smallestValue) {
+                break;
+            }
+            heap[index] = smallestValue;
+            index = smallest;
+        }
+        heap[index] = value;
+    }
+    
+    // Children of array index p occupy [arity * (p - arity + 2), +arity)
+    private int firstChildOf(int index) {
+        return (index - root + 1) << shift;
+    }
+    
+    private int parentOf(int index) {
+        return (index >> shift) + root - 1;
+    }
+    
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "[]";
+        }
+        
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        
+        for (int i = root; i < end; i++) {
+            sb.append(heap[i]);
+            if (i < end - 1) {
+                sb.append(", ");
+            }
+        }
+        
+        sb.append("]");
+        return sb.toString();
+    }
+}
@@ -215,9 +215,63 @@ public class DataStructureAlgorithmDemo {
         System.out.println("Contains 'apple': " + ht.containsKey("apple"));
         ht.remove("banana");
         System.out.println("After removing 'banana': " + ht);
+        
+        checkTreeifiedBuckets();
+        checkBloomFilterKeys();
         System.out.println();
     }
     
+    // Regression checks for buckets that turn into trees while other operations are under way
+    private void checkTreeifiedBuckets() {
+        // putAll: an insert that treeifies the bucket must not lose a later update in the same batch
+        HashTable<CollidingKey, Integer> batch = new HashTable<>();
+        for (int i = 1; i <= 7; i++) {
+            batch.put(new CollidingKey(i), i);
+        }
+        batch.putAll(new CollidingKey[]{new CollidingKey(100), new CollidingKey(3)}, new Integer[]{100, 333});
+        if (!Integer.valueOf(333).equals(batch.get(new CollidingKey(3)))) {
+            throw new IllegalStateException("putAll lost an update to a treeified bucket");
+        }
+        
+        // Incremental resize: migrating into a bucket that is already a tree must not leave a stale tree
+        HashTable<Object, String> migrating = new HashTable<>(true);
+        OtherCollidingKey other = new OtherCollidingKey();
+        migrating.put(other, "other");
+        for (int i = 0; i < 767; i++) {
+            migrating.put(i, "filler");
+        }
+        for (int i = 1; i <= 9; i++) {
+            migrating.put(new CollidingKey(i), "v" + i);
+        }
+        migrating.forEach((key, value) -> { });
+        migrating.remove(new CollidingKey(1));
+        migrating.remove(other);
+        if (migrating.get(new CollidingKey(1)) != null) {
+            throw new IllegalStateException("Removed key came back through a stale tree");
+        }
+        
+        System.out.println("Treeified bucket checks passed");
+    }
+    
+    // A Bloom filter must never report a definite miss for a key added through the other overload
+    private void checkBloomFilterKeys() {
+        BlockedBloomFilter filter = new BlockedBloomFilter(1000, 0.01);
+        for (long key = 1L << 40; key < (1L << 40) + 100; key++) {
+            filter.add(key);
+            if (!filter.mightContain(Long.valueOf(key))) {
+                throw new IllegalStateException("Boxed Long missed after add(long): " + key);
+            }
+        }
+        for (int key = -50; key < 50; key++) {
+            filter.add(Integer.valueOf(key));
+            if (!filter.mightContain((long) key)) {
+                throw new IllegalStateException("mightContain(long) missed after add(Integer): " + key);
+            }
+        }
+        
+        System.out.println("Bloom filter key checks passed");
+    }
+    
     // 9. Heap Implementation
     private void demonstrateHeap() {
         System.out.println("9. HEAP IMPLEMENTATION:");
@@ -895,4 +949,36 @@ public class DataStructureAlgorithmDemo {
         }
         return minIndex;
     }
-} 
\ No newline at end of file
+    
+    // Comparable keys that all share one hash code, so they pile into a single bucket
+    private static final class CollidingKey implements Comparable<CollidingKey> {
+        private final int id;
+        
+        CollidingKey(int id) {
+            this.id = id;
+        }
+        
+        @Override
+        public int compareTo(CollidingKey other) {
+            return Integer.compare(id, other.id);
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+        }
+        
+        @Override
+        public int hashCode() {
+            return 0x7FFF;
+        }
+    }
+    
+    // Same hash as CollidingKey but another class, which keeps a bucket from being a tree
+    private static final class OtherCollidingKey {
+        @Override
+        public int hashCode() {
+            return 0x7FFF;
+        }
+    }
+}
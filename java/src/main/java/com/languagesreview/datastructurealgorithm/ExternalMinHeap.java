@@ -0,0 +1,332 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * External-memory Min Heap of ints for queues far larger than RAM.
+ *
+ * Inserts go into a bounded in-memory {@link MinHeap}. When it fills up it is drained in
+ * order into a sorted run in a temp file. extractMin takes the smaller of the buffer's
+ * minimum and the smallest head of the runs, which sit in a {@link LongMinHeap}, so the
+ * runs are merged lazily, one block at a time. When the number of runs reaches what the
+ * memory budget allows, the smaller half of them is merged into one run with
+ * {@link KWayMerge}.
+ *
+ * Half the budget holds the insert buffer and the other half holds one block-sized read
+ * buffer per open run. Every run file is written once front to back and read once front
+ * to back, so all disk access is sequential. Temp files are deleted as runs are used up
+ * and on {@link #close()}. I/O errors surface as {@link UncheckedIOException}.
+ */
+public class ExternalMinHeap implements AutoCloseable {
+    private static final int BLOCK_BYTES = 1 << 16;
+    private static final int MAX_BUFFER_CAPACITY = 1 << 28;
+    private static final long MIN_MEMORY_BUDGET = 8L * BLOCK_BYTES;
+    
+    // A sorted run in a temp file; head is its smallest value not yet extracted
+    private static final class Run {
+        final FileChannel channel;
+        final ByteBuffer block;
+        long unread; // values still in the file or the block, not counting head
+        int head;
+        boolean hasHead;
+        
+        Run(FileChannel channel, ByteBuffer block, long count) throws IOException {
+            this.channel = channel;
+            this.block = block;
+            this.unread = count;
+            block.clear().flip();
+            advance();
+        }
+        
+        // Moves the next value into head, reading the next block when this one is used up
+        boolean advance() throws IOException {
+            if (unread == 0) {
+                hasHead = false;
+                return false;
+            }
+            if (!block.hasRemaining()) {
+                block.clear();
+                if (unread < block.capacity() / Integer.BYTES) {
+                    block.limit((int) unread * Integer.BYTES);
+                }
+                while (block.hasRemaining()) {
+                    if (channel.read(block) < 0) {
+                        throw new IOException("Run file is truncated");
+                    }
+                }
+                block.flip();
+            }
+            head = block.getInt();
+            hasHead = true;
+            unread--;
+            return true;
+        }
+        
+        long size() {
+            return unread + (hasHead ? 1 : 0);
+        }
+    }
+    
+    private final Path directory;
+    private final MinHeap buffer;
+    private final int bufferCapacity;
+    private final int maxRuns;
+    private final ByteBuffer writeBlock = directBlock();
+    private final ArrayDeque<ByteBuffer> freeBlocks = new ArrayDeque<>();
+    private List<Run> runs = new ArrayList<>();
+    private LongMinHeap heads = new LongMinHeap(); // run heads, with the run index as payload
+    private long size;
+    private long spilledRuns;
+    private boolean closed;
+    
+    // Spills into the default temp directory
+    public ExternalMinHeap(long memoryBudgetBytes) {
+        this(memoryBudgetBytes, null);
+    }
+    
+    public ExternalMinHeap(long memoryBudgetBytes, Path directory) {
+        if (memoryBudgetBytes < MIN_MEMORY_BUDGET) {
+            throw new IllegalArgumentException("Memory budget must be at least " + MIN_MEMORY_BUDGET + " bytes");
+        }
+        
+        this.directory = directory;
+        this.bufferCapacity = (int) Math.min(MAX_BUFFER_CAPACITY, memoryBudgetBytes / 2 / Integer.BYTES);
+        this.maxRuns = (int) Math.min(Integer.MAX_VALUE, memoryBudgetBytes / 2 / BLOCK_BYTES);
+        this.buffer = new MinHeap(bufferCapacity);
+    }
+    
+    public void insert(int value) {
+        ensureOpen();
+        if (buffer.size() == bufferCapacity) {
+            try {
+                spill();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        buffer.insert(value);
+        size++;
+    }
+    
+    public int getMin() {
+        ensureOpen();
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        if (minInBuffer()) {
+            return buffer.getMin();
+        }
+        return (int) heads.getMinKey();
+    }
+    
+    public int extractMin() {
+        ensureOpen();
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        
+        size--;
+        if (minInBuffer()) {
+            return buffer.extractMin();
+        }
+        
+        int index = (int) heads.getMinPayload();
+        int min = (int) heads.extractMin();
+        Run run = runs.get(index);
+        try {
+            if (run.advance()) {
+                heads.insert(run.head, index);
+            } else {
+                release(run);
+                runs.set(index, null);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return min;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public long size() {
+        return size;
+    }
+    
+    // Number of runs written so far, including those produced by merging
+    public long spilledRuns() {
+        return spilledRuns;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        
+        IOException failure = null;
+        for (Run run : runs) {
+            if (run != null) {
+                try {
+                    run.channel.close();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+        }
+        runs = null;
+        heads = null;
+        if (failure != null) {
+            throw failure;
+        }
+    }
+    
+    private boolean minInBuffer() {
+        return heads.isEmpty() || (!buffer.isEmpty() && buffer.getMin() <= heads.getMinKey());
+    }
+    
+    private void spill() throws IOException {
+        if (activeRuns() >= maxRuns) {
+            mergeSmallerRuns();
+        }
+        
+        int count = buffer.size();
+        PrimitiveIterator.OfInt drain = new PrimitiveIterator.OfInt() {
+            @Override
+            public boolean hasNext() {
+                return !buffer.isEmpty();
+            }
+            
+            @Override
+            public int nextInt() {
+                return buffer.extractMin();
+            }
+        };
+        addRun(writeRun(drain, count));
+    }
+    
+    // Merges the smaller half of the runs into one, so big runs are not rewritten every time
+    private void mergeSmallerRuns() throws IOException {
+        List<Run> active = new ArrayList<>();
+        for (Run run : runs) {
+            if (run != null) {
+                active.add(run);
+            }
+        }
+        active.sort(Comparator.comparingLong(Run::size));
+        
+        List<Run> merging = active.subList(0, Math.max(2, active.size() / 2));
+        List<PrimitiveIterator.OfInt> sources = new ArrayList<>(merging.size());
+        long count = 0;
+        for (Run run : merging) {
+            sources.add(iterate(run));
+            count += run.size();
+        }
+        Run merged = writeRun(KWayMerge.mergeInts(sources), count);
+        for (Run run : merging) {
+            release(run);
+        }
+        
+        List<Run> kept = new ArrayList<>(active.subList(merging.size(), active.size()));
+        runs = new ArrayList<>();
+        heads = new LongMinHeap();
+        for (Run run : kept) {
+            addRun(run);
+        }
+        addRun(merged);
+    }
+    
+    private Run writeRun(PrimitiveIterator.OfInt values, long count) throws IOException {
+        Path file = directory == null ? Files.createTempFile("minheap-run", ".bin")
+                : Files.createTempFile(directory, "minheap-run", ".bin");
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        try {
+            writeBlock.clear();
+            while (values.hasNext()) {
+                if (!writeBlock.hasRemaining()) {
+                    writeFully(channel, writeBlock.flip());
+                    writeBlock.clear();
+                }
+                writeBlock.putInt(values.nextInt());
+            }
+            writeFully(channel, writeBlock.flip());
+            channel.position(0);
+            
+            ByteBuffer block = freeBlocks.isEmpty() ? directBlock() : freeBlocks.pop();
+            spilledRuns++;
+            return new Run(channel, block, count);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+    
+    private void addRun(Run run) {
+        if (run.hasHead) {
+            heads.insert(run.head, runs.size());
+            runs.add(run);
+        } else {
+            release(run);
+        }
+    }
+    
+    private void release(Run run) {
+        freeBlocks.push(run.block);
+        try {
+            run.channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private int activeRuns() {
+        return heads.size();
+    }
+    
+    private static PrimitiveIterator.OfInt iterate(Run run) {
+        return new PrimitiveIterator.OfInt() {
+            @Override
+            public boolean hasNext() {
+                return run.hasHead;
+            }
+            
+            @Override
+            public int nextInt() {
+                int value = run.head;
+                try {
+                    run.advance();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return value;
+            }
+        };
+    }
+    
+    private static void writeFully(FileChannel channel, ByteBuffer block) throws IOException {
+        while (block.hasRemaining()) {
+            channel.write(block);
+        }
+    }
+    
+    private static ByteBuffer directBlock() {
+        return ByteBuffer.allocateDirect(BLOCK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Heap is closed");
+        }
+    }
+}
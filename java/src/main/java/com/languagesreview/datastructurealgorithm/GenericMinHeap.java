@@ -0,0 +1,170 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.util.*;
+
+/**
+ * Growable Min Heap of objects ordered by a comparator (natural ordering by default).
+ */
+public class GenericMinHeap<T> {
+    private static final int DEFAULT_CAPACITY = 16;
+    
+    private Object[] heap;
+    private int size;
+    private final Comparator<? super T> comparator;
+    
+    public GenericMinHeap() {
+        this(null);
+    }
+    
+    // A null comparator means natural ordering
+    public GenericMinHeap(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+        this.heap = new Object[DEFAULT_CAPACITY];
+    }
+    
+    public void insert(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        
+        ensureCapacity(size + 1);
+        size++;
+        heapifyUp(size - 1, value);
+    }
+    
+    /**
+     * Adds all values. A batch at least as large as the heap is appended and heapified
+     * bottom-up in O(n + m); smaller batches are sifted up one by one, which is cheaper
+     * than touching every existing element.
+     */
+    @SuppressWarnings("unchecked")
+    public void addAll(Collection<? extends T> values) {
+        ensureCapacity(size + values.size());
+        if (values.size() < size) {
+            for (T value : values) {
+                insert(value);
+            }
+            return;
+        }
+        
+        int end = size;
+        for (T value : values) {
+            if (value == null) {
+                // Drop the partial batch so the heap stays valid
+                Arrays.fill(heap, size, end, null);
+                throw new IllegalArgumentException("Value cannot be null");
+            }
+            heap[end++] = value;
+        }
+        size = end;
+        
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            heapifyDown(i, (T) heap[i]);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    public T getMin() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        return (T) heap[0];
+    }
+    
+    @SuppressWarnings("unchecked")
+    public T extractMin() {
+        T min = getMin();
+        size--;
+        T last = (T) heap[size];
+        heap[size] = null;
+        if (size > 0) {
+            heapifyDown(0, last);
+        }
+        return min;
+    }
+    
+    // Swaps the minimum for value with a single sift down; cheaper than extractMin + insert
+    public T replaceMin(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        
+        T min = getMin();
+        heapifyDown(0, value);
+        return min;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public void clear() {
+        Arrays.fill(heap, 0, size, null);
+        size = 0;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void heapifyUp(int index, T value) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (compare((T) heap[parent], value) <= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void heapifyDown(int index, T value) {
+        int half = size / 2;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && compare((T) heap[child + 1], (T) heap[child]) < 0) {
+                child++;
+            }
+            if (compare(value, (T) heap[child]) <= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = value;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private int compare(T a, T b) {
+        return comparator != null ? comparator.compare(a, b) : ((Comparable<? super T>) a).compareTo(b);
+    }
+    
+    private void ensureCapacity(int needed) {
+        if (needed > heap.length) {
+            heap = Arrays.copyOf(heap, Math.max(needed, heap.length + (heap.length >> 1) + 1));
+        }
+    }
+    
+    @Override
+    public String toString() {
+        if (size == 0) {
+            return "[]";
+        }
+        
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        
+        for (int i = 0; i < size; i++) {
+            sb.append(heap[i]);
+            if (i < size - 1) {
+                sb.append(", ");
+            }
+        }
+        
+        sb.append("]");
+        return sb.toString();
+    }
+}
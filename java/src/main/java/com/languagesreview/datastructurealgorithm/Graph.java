@@ -141,30 +141,26 @@ public class Graph {
         Arrays.fill(dist, Integer.MAX_VALUE);
         dist[start] = 0;
         
-        PriorityQueue<Node> pq = new PriorityQueue<>((a, b) -> a.distance - b.distance);
-        pq.offer(new Node(start, 0));
+        // One heap entry per vertex; improvements lower its key in place
+        IndexedMinHeap pq = new IndexedMinHeap(V);
+        pq.insert(start, 0);
         
         while (!pq.isEmpty()) {
-            Node current = pq.poll();
+            int current = pq.extractMin();
             
-            for (Integer neighbor : adj[current.vertex]) {
-                int newDist = dist[current.vertex] + 1; // Assuming unit weight
+            for (Integer neighbor : adj[current]) {
+                int newDist = dist[current] + 1; // Assuming unit weight
                 if (newDist < dist[neighbor]) {
                     dist[neighbor] = newDist;
-                    pq.offer(new Node(neighbor, newDist));
+                    if (pq.contains(neighbor)) {
+                        pq.decreaseKey(neighbor, newDist);
+                    } else {
+                        pq.insert(neighbor, newDist);
+                    }
                 }
             }
         }
         
         return dist;
     }
-    
-    private static class Node {
-        int vertex, distance;
-        
-        Node(int vertex, int distance) {
-            this.vertex = vertex;
-            this.distance = distance;
-        }
-    }
 } 
\ No newline at end of file
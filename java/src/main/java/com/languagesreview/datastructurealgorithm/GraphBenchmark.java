@@ -0,0 +1,86 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.lang.ref.Reference;
+import java.util.*;
+
+/**
+ * Simple timing harness comparing {@link Graph} with {@link CsrGraph}.
+ * Run with a large heap, e.g. {@code java -Xmx4g ...GraphBenchmark}.
+ */
+public class GraphBenchmark {
+    private static final int VERTICES = 1_000_000;
+    private static final int EDGES = 5_000_000;
+    private static final int ROUNDS = 5;
+    
+    public static void main(String[] args) {
+        GraphBenchmark benchmark = new GraphBenchmark();
+        benchmark.runTraversals();
+    }
+    
+    // Builds both graphs from the same random undirected edges, then times the traversals
+    public void runTraversals() {
+        System.out.println("=== " + VERTICES + " vertices, " + EDGES + " undirected edges ===");
+        Random random = new Random(42);
+        int[] from = new int[EDGES];
+        int[] to = new int[EDGES];
+        for (int e = 0; e < EDGES; e++) {
+            from[e] = random.nextInt(VERTICES);
+            to[e] = random.nextInt(VERTICES);
+        }
+        
+        long before = usedMemory();
+        long start = System.nanoTime();
+        Graph graph = new Graph(VERTICES);
+        for (int e = 0; e < EDGES; e++) {
+            graph.addEdge(from[e], to[e]);
+        }
+        long graphBuild = System.nanoTime() - start;
+        long graphBytes = usedMemory() - before;
+        
+        before = usedMemory();
+        start = System.nanoTime();
+        CsrGraph.Builder builder = CsrGraph.builder(VERTICES, false, EDGES);
+        for (int e = 0; e < EDGES; e++) {
+            builder.addEdge(from[e], to[e]);
+        }
+        CsrGraph csr = builder.build();
+        long csrBuild = System.nanoTime() - start;
+        long csrBytes = usedMemory() - before;
+        // Keep the edge list alive until both measurements are taken
+        Reference.reachabilityFence(from);
+        Reference.reachabilityFence(to);
+        
+        System.out.printf("build: Graph %d ms, %d MB; CsrGraph %d ms, %d MB%n",
+                graphBuild / 1_000_000, graphBytes >> 20, csrBuild / 1_000_000, csrBytes >> 20);
+        
+        for (int round = 0; round < ROUNDS; round++) {
+            start = System.nanoTime();
+            List<Integer> graphOrder = graph.bfs(0);
+            long graphBfs = System.nanoTime() - start;
+            start = System.nanoTime();
+            int[] graphDist = graph.shortestPath(0);
+            long graphPath = System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            int[] csrOrder = csr.bfs(0);
+            long csrBfs = System.nanoTime() - start;
+            start = System.nanoTime();
+            int[] csrDist = csr.shortestPath(0);
+            long csrPath = System.nanoTime() - start;
+            
+            boolean agree = graphOrder.size() == csrOrder.length && Arrays.equals(graphDist, csrDist);
+            System.out.printf("round %d: bfs Graph %d ms, CsrGraph %d ms; shortestPath Graph %d ms, CsrGraph %d ms%s%n",
+                    round, graphBfs / 1_000_000, csrBfs / 1_000_000, graphPath / 1_000_000, csrPath / 1_000_000,
+                    agree ? "" : " MISMATCH");
+        }
+        System.out.println();
+    }
+    
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,15 @@
+package com.languagesreview.datastructurealgorithm;
+
+/**
+ * Matches one 16-slot control group of a {@link SwissHashTable}. Each method returns a
+ * bitmask whose bit i is set when control byte {@code offset + i} qualifies.
+ */
+interface GroupMatcher {
+    int GROUP_SIZE = 16;
+
+    int match(byte[] ctrl, int offset, byte tag);
+
+    int matchEmpty(byte[] ctrl, int offset);
+
+    int matchEmptyOrDeleted(byte[] ctrl, int offset);
+}
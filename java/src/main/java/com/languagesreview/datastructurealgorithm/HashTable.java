@@ -1,12 +1,30 @@
 package com.languagesreview.datastructurealgorithm;
 
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
- * Hash Table implementation with chaining for collision resolution
+ * Hash Table implementation with chaining for collision resolution.
+ *
+ * In incremental resize mode the old and new bucket arrays stay live after the load
+ * factor is crossed, and each later operation migrates a bounded number of old buckets,
+ * so no single call pays for rehashing the whole table.
+ *
+ * keySet(), values() and entrySet() are live views backed by the buckets; their
+ * iterators and spliterators are fail-fast, and spliterators split on bucket ranges.
+ *
+ * Hash codes are spread and masked onto a power-of-two bucket array. A chain that grows
+ * to TREEIFY_THRESHOLD nodes whose keys share one Comparable class is turned into an
+ * AVL tree (its nodes stay linked in list order for iteration), so colliding keys cost
+ * O(log n) per lookup; the bucket reverts to a plain chain once it shrinks again.
+ *
+ * Statistics (hits, misses, resize count and time) are opt-in through
+ * setStatisticsEnabled; while disabled the only cost is a null check per operation.
  */
 public class HashTable<K, V> {
-    private static class Node<K, V> {
+    private static class Node<K, V> implements Map.Entry<K, V> {
         K key;
         V value;
         Node<K, V> next;
@@ -15,16 +33,203 @@ public class HashTable<K, V> {
             this.key = key;
             this.value = value;
         }
+        
+        @Override
+        public K getKey() {
+            return key;
+        }
+        
+        @Override
+        public V getValue() {
+            return value;
+        }
+        
+        @Override
+        public V setValue(V newValue) {
+            V oldValue = value;
+            value = newValue;
+            return oldValue;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return Objects.equals(key, e.getKey()) && Objects.equals(value, e.getValue());
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+        
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+    
+    // Node of a treeified bucket; next/prev keep list order, left/right form the AVL tree
+    private static final class TreeNode<K, V> extends Node<K, V> {
+        final int hash;
+        TreeNode<K, V> left;
+        TreeNode<K, V> right;
+        TreeNode<K, V> prev;
+        int height = 1;
+        TreeNode<K, V> treeRoot; // only set on the first node of a treeified bucket
+        
+        TreeNode(int hash, K key, V value) {
+            super(key, value);
+            this.hash = hash;
+        }
+        
+        void resetTree() {
+            left = null;
+            right = null;
+            prev = null;
+            height = 1;
+            treeRoot = null;
+        }
     }
     
     private Node<K, V>[] buckets;
     private int size;
     private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
     private static final double LOAD_FACTOR = 0.75;
+    private static final int MIGRATION_STEP = 4;
+    private static final int BATCH_BLOCK = 16;
+    private static final int TREEIFY_THRESHOLD = 8;
+    private static final int UNTREEIFY_THRESHOLD = 6;
+    private static final int CHAIN_HISTOGRAM_SLOTS = 16;
+    
+    private final boolean incrementalResize;
+    private Node<K, V>[] oldBuckets; // non-null while an incremental resize is in progress
+    private int migrateIndex;        // old buckets below this index are already migrated
+    private int modCount;            // structural changes, checked by the fail-fast views
+    
+    private Set<K> keySetView;
+    private Collection<V> valuesView;
+    private Set<Map.Entry<K, V>> entrySetView;
+    
+    private Counters counters; // null unless statistics are enabled
+    private BlockedBloomFilter bloomFilter; // null unless attached
+    
+    private static final class Counters {
+        long hits;
+        long misses;
+        long resizes;
+        long resizeNanos;
+    }
+    
+    /**
+     * Point-in-time health report of a table, meant to be polled by a metrics exporter.
+     * chainHistogram()[n] counts buckets holding n entries; the last slot also counts
+     * every longer chain.
+     */
+    public static final class Statistics {
+        private final int size;
+        private final int bucketCount;
+        private final long[] chainHistogram;
+        private final int maxChainLength;
+        private final int treeifiedBuckets;
+        private final long hits;
+        private final long misses;
+        private final long resizes;
+        private final long resizeNanos;
+        
+        private Statistics(int size, int bucketCount, long[] chainHistogram, int maxChainLength,
+                           int treeifiedBuckets, Counters counters) {
+            this.size = size;
+            this.bucketCount = bucketCount;
+            this.chainHistogram = chainHistogram;
+            this.maxChainLength = maxChainLength;
+            this.treeifiedBuckets = treeifiedBuckets;
+            this.hits = counters == null ? 0 : counters.hits;
+            this.misses = counters == null ? 0 : counters.misses;
+            this.resizes = counters == null ? 0 : counters.resizes;
+            this.resizeNanos = counters == null ? 0 : counters.resizeNanos;
+        }
+        
+        public int size() {
+            return size;
+        }
+        
+        public int bucketCount() {
+            return bucketCount;
+        }
+        
+        public double loadFactor() {
+            return (double) size / bucketCount;
+        }
+        
+        public long[] chainHistogram() {
+            return chainHistogram.clone();
+        }
+        
+        public int maxChainLength() {
+            return maxChainLength;
+        }
+        
+        public int treeifiedBuckets() {
+            return treeifiedBuckets;
+        }
+        
+        public long hits() {
+            return hits;
+        }
+        
+        public long misses() {
+            return misses;
+        }
+        
+        public long resizes() {
+            return resizes;
+        }
+        
+        public long resizeNanos() {
+            return resizeNanos;
+        }
+        
+        @Override
+        public String toString() {
+            return "Statistics{size=" + size + ", buckets=" + bucketCount
+                    + ", loadFactor=" + String.format("%.3f", loadFactor())
+                    + ", maxChain=" + maxChainLength + ", treeified=" + treeifiedBuckets
+                    + ", chains=" + Arrays.toString(chainHistogram)
+                    + ", hits=" + hits + ", misses=" + misses
+                    + ", resizes=" + resizes + ", resizeNanos=" + resizeNanos + "}";
+        }
+    }
     
-    @SuppressWarnings("unchecked")
     public HashTable() {
-        buckets = new Node[DEFAULT_CAPACITY];
+        this(false);
+    }
+    
+    public HashTable(boolean incrementalResize) {
+        this(incrementalResize, 0);
+    }
+    
+    // Presized so that expectedSize entries fit without any resize
+    public HashTable(int expectedSize) {
+        this(false, expectedSize);
+    }
+    
+    @SuppressWarnings("unchecked")
+    public HashTable(boolean incrementalResize, int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative");
+        }
+        
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < MAXIMUM_CAPACITY && capacity * LOAD_FACTOR <= expectedSize) {
+            capacity <<= 1;
+        }
+        
+        this.incrementalResize = incrementalResize;
+        buckets = new Node[capacity];
         size = 0;
     }
     
@@ -33,26 +238,19 @@ public class HashTable<K, V> {
             throw new IllegalArgumentException("Key cannot be null");
         }
         
-        int index = hash(key);
-        Node<K, V> current = buckets[index];
+        migrateStep();
         
-        // Check if key already exists
-        while (current != null) {
-            if (current.key.equals(key)) {
-                current.value = value;
-                return;
-            }
-            current = current.next;
+        Node<K, V> existing = findNode(key);
+        if (existing != null) {
+            existing.value = value;
+            return;
         }
         
         // Add new node
-        Node<K, V> newNode = new Node<>(key, value);
-        newNode.next = buckets[index];
-        buckets[index] = newNode;
-        size++;
+        linkNew(hash(key, buckets.length), key, value);
         
         // Resize if needed
-        if ((double) size / buckets.length >= LOAD_FACTOR) {
+        if (oldBuckets == null && (double) size / buckets.length >= LOAD_FACTOR) {
             resize();
         }
     }
@@ -62,37 +260,89 @@ public class HashTable<K, V> {
             throw new IllegalArgumentException("Key cannot be null");
         }
         
-        int index = hash(key);
-        Node<K, V> current = buckets[index];
+        if (bloomFilter != null && !bloomFilter.mightContain(key)) {
+            recordLookup(null);
+            return null;
+        }
+        
+        migrateStep();
+        
+        Node<K, V> node = findNode(key);
+        recordLookup(node);
+        return node == null ? null : node.value;
+    }
+    
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+        
+        migrateStep();
+        
+        if (oldBuckets != null) {
+            int oldIndex = hash(key, oldBuckets.length);
+            if (oldIndex >= migrateIndex) {
+                Node<K, V> removed = removeFromChain(oldBuckets, oldIndex, key);
+                if (removed != null) {
+                    return removed.value;
+                }
+            }
+        }
+        
+        Node<K, V> removed = removeFromChain(buckets, hash(key, buckets.length), key);
+        return removed == null ? null : removed.value;
+    }
+    
+    private Node<K, V> findNode(K key) {
+        if (oldBuckets != null) {
+            int oldIndex = hash(key, oldBuckets.length);
+            if (oldIndex >= migrateIndex) {
+                Node<K, V> node = findInChain(oldBuckets[oldIndex], key);
+                if (node != null) {
+                    return node;
+                }
+            }
+        }
+        
+        return findInChain(buckets[hash(key, buckets.length)], key);
+    }
+    
+    private Node<K, V> findInChain(Node<K, V> current, K key) {
+        TreeNode<K, V> root = treeRootOf(current);
+        if (root != null) {
+            Node<K, V> node = treeFind(root, spread(key.hashCode()), key);
+            if (node != null || sameComparableClass(root.key, key)) {
+                return node;
+            }
+        }
         
         while (current != null) {
             if (current.key.equals(key)) {
-                return current.value;
+                return current;
             }
             current = current.next;
         }
-        
         return null;
     }
     
-    public V remove(K key) {
-        if (key == null) {
-            throw new IllegalArgumentException("Key cannot be null");
+    private Node<K, V> removeFromChain(Node<K, V>[] table, int index, K key) {
+        if (treeRootOf(table[index]) != null) {
+            return removeFromTree(table, index, key);
         }
         
-        int index = hash(key);
-        Node<K, V> current = buckets[index];
+        Node<K, V> current = table[index];
         Node<K, V> prev = null;
         
         while (current != null) {
             if (current.key.equals(key)) {
                 if (prev == null) {
-                    buckets[index] = current.next;
+                    table[index] = current.next;
                 } else {
                     prev.next = current.next;
                 }
                 size--;
-                return current.value;
+                modCount++;
+                return current;
             }
             prev = current;
             current = current.next;
@@ -101,18 +351,164 @@ public class HashTable<K, V> {
         return null;
     }
     
+    /**
+     * Looks up a batch of keys, writing each value (or null) to the same position of out.
+     * Bucket heads for a whole block of keys are loaded before any chain is walked, so
+     * the CPU can overlap the cache misses of independent keys.
+     */
+    @SuppressWarnings("unchecked")
+    public void getAll(K[] keys, V[] out) {
+        if (out.length < keys.length) {
+            throw new IllegalArgumentException("Output array is shorter than key array");
+        }
+        
+        Node<K, V>[] cursors = new Node[BATCH_BLOCK];
+        for (int start = 0; start < keys.length; start += BATCH_BLOCK) {
+            int count = Math.min(BATCH_BLOCK, keys.length - start);
+            
+            if (oldBuckets != null) {
+                for (int j = 0; j < count; j++) {
+                    out[start + j] = get(keys[start + j]);
+                }
+                continue;
+            }
+            
+            locate(keys, start, count, cursors);
+            for (int j = 0; j < count; j++) {
+                recordLookup(cursors[j]);
+                out[start + j] = cursors[j] == null ? null : cursors[j].value;
+            }
+        }
+    }
+    
+    /**
+     * Inserts or updates a batch of entries. The bucket array is grown up front for the
+     * whole batch, so no resize happens part way through.
+     */
+    @SuppressWarnings("unchecked")
+    public void putAll(K[] keys, V[] values) {
+        if (values.length < keys.length) {
+            throw new IllegalArgumentException("Value array is shorter than key array");
+        }
+        
+        if (oldBuckets != null || incrementalResize) {
+            for (int i = 0; i < keys.length; i++) {
+                put(keys[i], values[i]);
+            }
+            return;
+        }
+        
+        while ((double) (size + keys.length) / buckets.length >= LOAD_FACTOR) {
+            resize();
+        }
+        
+        Node<K, V>[] found = new Node[BATCH_BLOCK];
+        for (int start = 0; start < keys.length; start += BATCH_BLOCK) {
+            int count = Math.min(BATCH_BLOCK, keys.length - start);
+            locate(keys, start, count, found);
+            int located = modCount;
+            
+            for (int j = 0; j < count; j++) {
+                K key = keys[start + j];
+                Node<K, V> node = found[j];
+                int index = hash(key, buckets.length);
+                
+                // An earlier key of this block changed the table: this one may now be present,
+                // or its bucket may have been treeified, which replaces the located node
+                if (modCount != located) {
+                    node = findInChain(buckets[index], key);
+                }
+                
+                if (node != null) {
+                    node.value = values[start + j];
+                } else {
+                    linkNew(index, key, values[start + j]);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Removes a batch of keys and returns how many were present. Nodes are located with
+     * the same staged walk as getAll and then unlinked by identity, so keys are compared
+     * only once and keys that are absent never touch their bucket again.
+     */
+    @SuppressWarnings("unchecked")
+    public int removeAll(K[] keys) {
+        int removed = 0;
+        
+        Node<K, V>[] cursors = new Node[BATCH_BLOCK];
+        for (int start = 0; start < keys.length; start += BATCH_BLOCK) {
+            int count = Math.min(BATCH_BLOCK, keys.length - start);
+            
+            if (oldBuckets != null) {
+                for (int j = 0; j < count; j++) {
+                    if (remove(keys[start + j]) != null) {
+                        removed++;
+                    }
+                }
+                continue;
+            }
+            
+            locate(keys, start, count, cursors);
+            for (int j = 0; j < count; j++) {
+                K key = keys[start + j];
+                if (cursors[j] != null && unlink(hash(key, buckets.length), cursors[j], key)) {
+                    removed++;
+                }
+            }
+        }
+        
+        return removed;
+    }
+    
+    // Unlinks a node found by locate; false if an earlier key of the batch already removed it
+    private boolean unlink(int index, Node<K, V> node, K key) {
+        if (treeRootOf(buckets[index]) != null) {
+            return removeFromTree(buckets, index, key) != null;
+        }
+        
+        Node<K, V> prev = null;
+        for (Node<K, V> current = buckets[index]; current != null; current = current.next) {
+            if (current == node) {
+                if (prev == null) {
+                    buckets[index] = current.next;
+                } else {
+                    prev.next = current.next;
+                }
+                size--;
+                modCount++;
+                return true;
+            }
+            prev = current;
+        }
+        return false;
+    }
+    
+    // Loads every bucket head of the block first, then resolves each chain
+    private void locate(K[] keys, int start, int count, Node<K, V>[] result) {
+        for (int j = 0; j < count; j++) {
+            if (keys[start + j] == null) {
+                throw new IllegalArgumentException("Key cannot be null");
+            }
+            // A definite Bloom filter miss leaves a null chain, so the second pass skips it
+            boolean absent = bloomFilter != null && !bloomFilter.mightContain(keys[start + j]);
+            result[j] = absent ? null : buckets[hash(keys[start + j], buckets.length)];
+        }
+        
+        for (int j = 0; j < count; j++) {
+            result[j] = findInChain(result[j], keys[start + j]);
+        }
+    }
+    
     public boolean containsKey(K key) {
         return get(key) != null;
     }
     
     public boolean containsValue(V value) {
-        for (Node<K, V> bucket : buckets) {
-            Node<K, V> current = bucket;
-            while (current != null) {
-                if (Objects.equals(current.value, value)) {
-                    return true;
-                }
-                current = current.next;
+        for (V candidate : values()) {
+            if (Objects.equals(candidate, value)) {
+                return true;
             }
         }
         return false;
@@ -128,49 +524,724 @@ public class HashTable<K, V> {
     
     public void clear() {
         Arrays.fill(buckets, null);
+        oldBuckets = null;
+        migrateIndex = 0;
         size = 0;
+        modCount++;
+        if (bloomFilter != null) {
+            bloomFilter.clear();
+        }
     }
     
-    public Set<K> keySet() {
-        Set<K> keys = new HashSet<>();
+    /**
+     * Fronts get/containsKey with a Bloom filter so keys it has never seen return without
+     * touching the buckets. Current keys are added now and every later insert adds its key.
+     * Removed keys cannot be taken out of the filter, so heavy churn slowly raises its
+     * false-positive rate; size the filter for the total number of distinct keys.
+     */
+    public void attachBloomFilter(BlockedBloomFilter filter) {
+        if (filter == null) {
+            throw new IllegalArgumentException("Filter cannot be null");
+        }
+        for (K key : keySet()) {
+            filter.add(key);
+        }
+        bloomFilter = filter;
+    }
+    
+    public void detachBloomFilter() {
+        bloomFilter = null;
+    }
+    
+    public boolean isResizing() {
+        return oldBuckets != null;
+    }
+    
+    public void setStatisticsEnabled(boolean enabled) {
+        if (!enabled) {
+            counters = null;
+        } else if (counters == null) {
+            counters = new Counters();
+        }
+    }
+    
+    public boolean isStatisticsEnabled() {
+        return counters != null;
+    }
+    
+    /**
+     * Walks every bucket to build a chain-length histogram, so sample it periodically
+     * rather than per request. Counter fields are zero while statistics are disabled.
+     */
+    public Statistics statistics() {
+        long[] histogram = new long[CHAIN_HISTOGRAM_SLOTS];
+        int maxChain = 0;
+        int treeified = 0;
+        
+        int bucketCount = buckets.length;
         for (Node<K, V> bucket : buckets) {
-            Node<K, V> current = bucket;
-            while (current != null) {
-                keys.add(current.key);
-                current = current.next;
+            int length = chainLength(bucket);
+            histogram[Math.min(length, CHAIN_HISTOGRAM_SLOTS - 1)]++;
+            maxChain = Math.max(maxChain, length);
+            treeified += treeRootOf(bucket) != null ? 1 : 0;
+        }
+        if (oldBuckets != null) {
+            bucketCount += oldBuckets.length - migrateIndex;
+            for (int i = migrateIndex; i < oldBuckets.length; i++) {
+                int length = chainLength(oldBuckets[i]);
+                histogram[Math.min(length, CHAIN_HISTOGRAM_SLOTS - 1)]++;
+                maxChain = Math.max(maxChain, length);
+                treeified += treeRootOf(oldBuckets[i]) != null ? 1 : 0;
+            }
+        }
+        
+        return new Statistics(size, bucketCount, histogram, maxChain, treeified, counters);
+    }
+    
+    private static int chainLength(Node<?, ?> current) {
+        int length = 0;
+        for (; current != null; current = current.next) {
+            length++;
+        }
+        return length;
+    }
+    
+    private void recordLookup(Node<K, V> node) {
+        Counters c = counters;
+        if (c != null) {
+            if (node != null) {
+                c.hits++;
+            } else {
+                c.misses++;
             }
         }
-        return keys;
+    }
+    
+    public Set<K> keySet() {
+        if (keySetView == null) {
+            keySetView = new KeySet();
+        }
+        return keySetView;
     }
     
     public Collection<V> values() {
-        List<V> values = new ArrayList<>();
+        if (valuesView == null) {
+            valuesView = new Values();
+        }
+        return valuesView;
+    }
+    
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (entrySetView == null) {
+            entrySetView = new EntrySet();
+        }
+        return entrySetView;
+    }
+    
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        finishMigration();
+        int expectedModCount = modCount;
+        
         for (Node<K, V> bucket : buckets) {
-            Node<K, V> current = bucket;
-            while (current != null) {
-                values.add(current.value);
-                current = current.next;
+            for (Node<K, V> current = bucket; current != null; current = current.next) {
+                action.accept(current.key, current.value);
             }
         }
-        return values;
+        
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
     }
     
-    private int hash(K key) {
-        return Math.abs(key.hashCode()) % buckets.length;
+    private int hash(K key, int length) {
+        return spread(key.hashCode()) & (length - 1);
+    }
+    
+    // Folds the high bits into the low ones that the power-of-two mask keeps
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
     }
     
     @SuppressWarnings("unchecked")
     private void resize() {
-        Node<K, V>[] oldBuckets = buckets;
-        buckets = new Node[oldBuckets.length * 2];
-        size = 0;
+        Counters c = counters;
+        long start = c != null ? System.nanoTime() : 0L;
+        
+        Node<K, V>[] previous = buckets;
+        buckets = new Node[previous.length * 2];
+        modCount++;
+        
+        if (incrementalResize) {
+            oldBuckets = previous;
+            migrateIndex = 0;
+        } else {
+            for (int i = 0; i < previous.length; i++) {
+                moveChain(previous[i]);
+            }
+            for (int i = 0; i < buckets.length; i++) {
+                treeifyIfLong(i);
+            }
+        }
+        
+        if (c != null) {
+            c.resizes++;
+            c.resizeNanos += System.nanoTime() - start;
+        }
+    }
+    
+    private void migrateStep() {
+        if (oldBuckets == null) {
+            return;
+        }
+        
+        Counters c = counters;
+        long start = c != null ? System.nanoTime() : 0L;
+        
+        int end = Math.min(migrateIndex + MIGRATION_STEP, oldBuckets.length);
+        for (int i = migrateIndex; i < end; i++) {
+            moveChain(oldBuckets[i]);
+            oldBuckets[i] = null;
+            // Old bucket i splits into buckets i and i + oldLength
+            treeifyIfLong(i);
+            treeifyIfLong(i + oldBuckets.length);
+        }
+        migrateIndex = end;
+        modCount++;
+        
+        if (migrateIndex == oldBuckets.length) {
+            oldBuckets = null;
+            migrateIndex = 0;
+        }
+        
+        if (c != null) {
+            c.resizeNanos += System.nanoTime() - start;
+        }
+    }
+    
+    // Views walk a single bucket array, so any pending incremental resize is completed first
+    private void finishMigration() {
+        while (oldBuckets != null) {
+            migrateStep();
+        }
+    }
+    
+    // Relinks existing nodes into the current bucket array without allocating
+    private void moveChain(Node<K, V> current) {
+        while (current != null) {
+            Node<K, V> next = current.next;
+            if (current instanceof TreeNode) {
+                ((TreeNode<K, V>) current).resetTree();
+            }
+            int index = hash(current.key, buckets.length);
+            // Inserts during an incremental resize may have treeified the destination already;
+            // fall back to a chain there and let treeifyIfLong rebuild it
+            if (treeRootOf(buckets[index]) != null) {
+                untreeify(buckets[index]);
+            }
+            current.next = buckets[index];
+            buckets[index] = current;
+            current = next;
+        }
+    }
+    
+    // Adds a key known to be absent, keeping the bucket's tree or chain form up to date
+    private void linkNew(int index, K key, V value) {
+        TreeNode<K, V> root = treeRootOf(buckets[index]);
+        if (root != null && (!sameComparableClass(root.key, key)
+                || treeSearch(root, spread(key.hashCode()), key) != null)) {
+            // The tree needs one class and a compareTo consistent with equals
+            untreeify(buckets[index]);
+            root = null;
+        }
+        
+        if (root == null) {
+            Node<K, V> newNode = new Node<>(key, value);
+            newNode.next = buckets[index];
+            buckets[index] = newNode;
+        } else {
+            // Link after the head so the head keeps carrying the tree root
+            TreeNode<K, V> head = (TreeNode<K, V>) buckets[index];
+            TreeNode<K, V> newNode = new TreeNode<>(spread(key.hashCode()), key, value);
+            newNode.next = head.next;
+            if (head.next != null) {
+                ((TreeNode<K, V>) head.next).prev = newNode;
+            }
+            newNode.prev = head;
+            head.next = newNode;
+            head.treeRoot = treeInsert(root, newNode);
+        }
+        size++;
+        modCount++;
+        if (bloomFilter != null) {
+            bloomFilter.add(key);
+        }
+        
+        if (root == null) {
+            treeifyIfLong(index);
+        }
+    }
+    
+    private TreeNode<K, V> treeRootOf(Node<K, V> head) {
+        return head instanceof TreeNode ? ((TreeNode<K, V>) head).treeRoot : null;
+    }
+    
+    private static boolean sameComparableClass(Object a, Object b) {
+        return a instanceof Comparable && a.getClass() == b.getClass();
+    }
+    
+    private void treeifyIfLong(int index) {
+        Node<K, V> head = buckets[index];
+        if (head == null || treeRootOf(head) != null) {
+            return;
+        }
+        
+        int length = 0;
+        for (Node<K, V> current = head; current != null; current = current.next) {
+            if (!sameComparableClass(head.key, current.key)) {
+                return;
+            }
+            length++;
+        }
+        if (length < TREEIFY_THRESHOLD) {
+            return;
+        }
+        
+        // Fresh nodes are built so plain Node instances never carry tree links
+        TreeNode<K, V> first = null;
+        TreeNode<K, V> last = null;
+        TreeNode<K, V> root = null;
+        for (Node<K, V> current = head; current != null; current = current.next) {
+            TreeNode<K, V> node = new TreeNode<>(spread(current.key.hashCode()), current.key, current.value);
+            if (root != null && treeSearch(root, node.hash, node.key) != null) {
+                return;
+            }
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+                node.prev = last;
+            }
+            last = node;
+            root = treeInsert(root, node);
+        }
+        
+        first.treeRoot = root;
+        buckets[index] = first;
+        modCount++;
+    }
+    
+    // Turns a tree bucket back into a plain chain in place, keeping node identity and order
+    private void untreeify(Node<K, V> head) {
+        for (Node<K, V> current = head; current != null; current = current.next) {
+            ((TreeNode<K, V>) current).resetTree();
+        }
+    }
+    
+    private Node<K, V> removeFromTree(Node<K, V>[] table, int index, K key) {
+        TreeNode<K, V> head = (TreeNode<K, V>) table[index];
+        TreeNode<K, V> root = head.treeRoot;
+        TreeNode<K, V> node = treeFind(root, spread(key.hashCode()), key);
+        if (node == null) {
+            if (sameComparableClass(root.key, key)) {
+                return null;
+            }
+            // A key of another class can still be equal to a stored key
+            untreeify(head);
+            return removeFromChain(table, index, key);
+        }
+        
+        // Unlink from list order without moving any other node
+        TreeNode<K, V> next = (TreeNode<K, V>) node.next;
+        if (node.prev != null) {
+            node.prev.next = next;
+        }
+        if (next != null) {
+            next.prev = node.prev;
+        }
+        if (node == head) {
+            head = next;
+            table[index] = next;
+        }
+        
+        root = treeDelete(root, node);
+        size--;
+        modCount++;
+        
+        if (head != null) {
+            head.treeRoot = root;
+            int remaining = 0;
+            for (Node<K, V> current = head; current != null && remaining <= UNTREEIFY_THRESHOLD;
+                    current = current.next) {
+                remaining++;
+            }
+            if (remaining <= UNTREEIFY_THRESHOLD) {
+                untreeify(head);
+            }
+        }
+        return node;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <K> int compareKeys(int hash, K key, TreeNode<K, ?> node) {
+        if (hash != node.hash) {
+            return hash < node.hash ? -1 : 1;
+        }
+        return ((Comparable<Object>) key).compareTo(node.key);
+    }
+    
+    private TreeNode<K, V> treeFind(TreeNode<K, V> root, int hash, K key) {
+        if (!sameComparableClass(root.key, key)) {
+            return null;
+        }
+        
+        TreeNode<K, V> node = treeSearch(root, hash, key);
+        return node != null && node.key.equals(key) ? node : null;
+    }
+    
+    // Returns the node comparing equal to key; trees never hold two such nodes
+    private TreeNode<K, V> treeSearch(TreeNode<K, V> root, int hash, K key) {
+        TreeNode<K, V> current = root;
+        while (current != null) {
+            int cmp = compareKeys(hash, key, current);
+            if (cmp == 0) {
+                return current;
+            }
+            current = cmp < 0 ? current.left : current.right;
+        }
+        return null;
+    }
+    
+    private TreeNode<K, V> treeInsert(TreeNode<K, V> root, TreeNode<K, V> node) {
+        if (root == null) {
+            return node;
+        }
+        if (compareKeys(node.hash, node.key, root) < 0) {
+            root.left = treeInsert(root.left, node);
+        } else {
+            root.right = treeInsert(root.right, node);
+        }
+        return rebalance(root);
+    }
+    
+    // Removes the given node by relinking, never by copying keys, so entries keep their identity
+    private TreeNode<K, V> treeDelete(TreeNode<K, V> root, TreeNode<K, V> node) {
+        if (root == node) {
+            if (node.left == null || node.right == null) {
+                return node.left != null ? node.left : node.right;
+            }
+            TreeNode<K, V> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            return rebalance(successor);
+        }
+        
+        if (compareKeys(node.hash, node.key, root) < 0) {
+            root.left = treeDelete(root.left, node);
+        } else {
+            root.right = treeDelete(root.right, node);
+        }
+        return rebalance(root);
+    }
+    
+    private TreeNode<K, V> removeMin(TreeNode<K, V> root) {
+        if (root.left == null) {
+            return root.right;
+        }
+        root.left = removeMin(root.left);
+        return rebalance(root);
+    }
+    
+    private static int height(TreeNode<?, ?> node) {
+        return node == null ? 0 : node.height;
+    }
+    
+    private TreeNode<K, V> rebalance(TreeNode<K, V> node) {
+        updateHeight(node);
+        int balance = height(node.left) - height(node.right);
         
-        for (Node<K, V> bucket : oldBuckets) {
-            Node<K, V> current = bucket;
-            while (current != null) {
-                put(current.key, current.value);
-                current = current.next;
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
             }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+    
+    private TreeNode<K, V> rotateRight(TreeNode<K, V> node) {
+        TreeNode<K, V> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        updateHeight(node);
+        updateHeight(pivot);
+        return pivot;
+    }
+    
+    private TreeNode<K, V> rotateLeft(TreeNode<K, V> node) {
+        TreeNode<K, V> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        updateHeight(node);
+        updateHeight(pivot);
+        return pivot;
+    }
+    
+    private static void updateHeight(TreeNode<?, ?> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+    }
+    
+    private final class KeySet extends AbstractSet<K> {
+        @Override
+        public int size() {
+            return size;
+        }
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            return o != null && findNode((K) o) != null;
+        }
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            return o != null && findNode((K) o) != null && HashTable.this.remove((K) o) != null;
+        }
+        
+        @Override
+        public void clear() {
+            HashTable.this.clear();
+        }
+        
+        @Override
+        public Iterator<K> iterator() {
+            return new HashIterator<>(node -> node.key);
+        }
+        
+        @Override
+        public Spliterator<K> spliterator() {
+            return newSpliterator(node -> node.key, Spliterator.DISTINCT | Spliterator.NONNULL);
+        }
+    }
+    
+    private final class Values extends AbstractCollection<V> {
+        @Override
+        public int size() {
+            return size;
+        }
+        
+        @Override
+        public void clear() {
+            HashTable.this.clear();
+        }
+        
+        @Override
+        public Iterator<V> iterator() {
+            return new HashIterator<>(node -> node.value);
+        }
+        
+        @Override
+        public Spliterator<V> spliterator() {
+            return newSpliterator(node -> node.value, 0);
+        }
+    }
+    
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public int size() {
+            return size;
+        }
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry) || ((Map.Entry<?, ?>) o).getKey() == null) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            Node<K, V> node = findNode((K) e.getKey());
+            return node != null && Objects.equals(node.value, e.getValue());
+        }
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            HashTable.this.remove((K) ((Map.Entry<?, ?>) o).getKey());
+            return true;
+        }
+        
+        @Override
+        public void clear() {
+            HashTable.this.clear();
+        }
+        
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new HashIterator<>(node -> node);
+        }
+        
+        @Override
+        public Spliterator<Map.Entry<K, V>> spliterator() {
+            return newSpliterator(node -> node, Spliterator.DISTINCT | Spliterator.NONNULL);
+        }
+    }
+    
+    private final class HashIterator<T> implements Iterator<T> {
+        private final Function<Node<K, V>, T> extractor;
+        private Node<K, V> next;
+        private Node<K, V> lastReturned;
+        private int index;
+        private int expectedModCount;
+        
+        HashIterator(Function<Node<K, V>, T> extractor) {
+            this.extractor = extractor;
+            finishMigration();
+            expectedModCount = modCount;
+            advanceBucket();
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+        
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            
+            lastReturned = next;
+            next = next.next;
+            if (next == null) {
+                advanceBucket();
+            }
+            return extractor.apply(lastReturned);
+        }
+        
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            
+            // Removing never resizes, so the bucket array being walked stays the same
+            HashTable.this.remove(lastReturned.key);
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+        
+        private void advanceBucket() {
+            while (next == null && index < buckets.length) {
+                next = buckets[index++];
+            }
+        }
+    }
+    
+    private <T> Spliterator<T> newSpliterator(Function<Node<K, V>, T> extractor, int characteristics) {
+        finishMigration();
+        return new BucketSpliterator<>(extractor, buckets, 0, buckets.length, size, characteristics);
+    }
+    
+    // Covers the bucket range [index, fence); splitting hands off the lower half of the range
+    private final class BucketSpliterator<T> implements Spliterator<T> {
+        private final Function<Node<K, V>, T> extractor;
+        private final Node<K, V>[] table;
+        private final int characteristics;
+        private final int expectedModCount;
+        private int index;
+        private final int fence;
+        private long estimate;
+        private Node<K, V> current;
+        
+        BucketSpliterator(Function<Node<K, V>, T> extractor, Node<K, V>[] table, int index, int fence,
+                          long estimate, int characteristics) {
+            this.extractor = extractor;
+            this.table = table;
+            this.index = index;
+            this.fence = fence;
+            this.estimate = estimate;
+            this.characteristics = characteristics;
+            this.expectedModCount = modCount;
+        }
+        
+        @Override
+        public Spliterator<T> trySplit() {
+            int mid = (index + fence) >>> 1;
+            if (current != null || index >= mid) {
+                return null;
+            }
+            
+            estimate >>>= 1;
+            BucketSpliterator<T> prefix = new BucketSpliterator<>(extractor, table, index, mid,
+                    estimate, characteristics);
+            index = mid;
+            return prefix;
+        }
+        
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (current == null && index < fence) {
+                current = table[index++];
+            }
+            if (current == null) {
+                return false;
+            }
+            
+            Node<K, V> node = current;
+            current = current.next;
+            action.accept(extractor.apply(node));
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            return true;
+        }
+        
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            Node<K, V> node = current;
+            current = null;
+            
+            while (node != null || index < fence) {
+                if (node == null) {
+                    node = table[index++];
+                    continue;
+                }
+                action.accept(extractor.apply(node));
+                node = node.next;
+            }
+            
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+        
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+        
+        @Override
+        public int characteristics() {
+            return characteristics;
         }
     }
     
@@ -180,16 +1251,12 @@ public class HashTable<K, V> {
         sb.append("{");
         
         boolean first = true;
-        for (Node<K, V> bucket : buckets) {
-            Node<K, V> current = bucket;
-            while (current != null) {
-                if (!first) {
-                    sb.append(", ");
-                }
-                sb.append(current.key).append("=").append(current.value);
-                first = false;
-                current = current.next;
+        for (Map.Entry<K, V> entry : entrySet()) {
+            if (!first) {
+                sb.append(", ");
             }
+            sb.append(entry.getKey()).append("=").append(entry.getValue());
+            first = false;
         }
         
         sb.append("}");
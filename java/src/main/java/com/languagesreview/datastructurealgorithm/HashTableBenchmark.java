@@ -0,0 +1,237 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Simple timing harness for the hash table implementations.
+ * Run with a large heap, e.g. {@code java -Xmx4g ...HashTableBenchmark}.
+ */
+public class HashTableBenchmark {
+    private static final int TABLE_SIZE = 2_000_000;
+    private static final int BATCH_SIZE = 4096;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        HashTableBenchmark benchmark = new HashTableBenchmark();
+        benchmark.runBatchLookup();
+        benchmark.runSwissLookup();
+        benchmark.runSnapshot();
+        benchmark.runBloomFilteredMisses();
+    }
+
+    // Compares a per-key get loop against getAll on the same random key batches
+    public void runBatchLookup() {
+        System.out.println("=== HashTable batch lookup (" + TABLE_SIZE + " entries) ===");
+
+        HashTable<Integer, Integer> table = new HashTable<>();
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            table.put(i, i);
+        }
+
+        Integer[][] batches = randomKeyBatches(TABLE_SIZE * 2, 256);
+        Integer[] out = new Integer[BATCH_SIZE];
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long sink = 0;
+
+            long start = System.nanoTime();
+            for (Integer[] batch : batches) {
+                for (int i = 0; i < batch.length; i++) {
+                    Integer value = table.get(batch[i]);
+                    if (value != null) {
+                        sink += value;
+                    }
+                }
+            }
+            long loopNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (Integer[] batch : batches) {
+                table.getAll(batch, out);
+                for (Integer value : out) {
+                    if (value != null) {
+                        sink -= value;
+                    }
+                }
+            }
+            long batchNanos = System.nanoTime() - start;
+
+            long lookups = (long) batches.length * BATCH_SIZE;
+            System.out.printf("round %d: get loop %.1f ns/key, getAll %.1f ns/key (check %d)%n",
+                    round, (double) loopNanos / lookups, (double) batchNanos / lookups, sink);
+        }
+        System.out.println();
+    }
+
+    // Chained HashTable against the Swiss table (scalar and default matcher) at low and high load
+    public void runSwissLookup() {
+        int capacity = 1 << 20;
+        for (double load : new double[] {0.45, 0.85}) {
+            int entries = (int) (capacity * load);
+            System.out.printf("=== Swiss table lookup (%d entries, %.0f%% load, vectorized=%b) ===%n",
+                    entries, load * 100, SwissHashTable.isVectorized());
+
+            // Scattered keys, so sequential Integer keys cannot give the chained table free locality
+            Random random = new Random(7);
+            int[] keys = new int[entries];
+            HashTable<Integer, Integer> chained = new HashTable<>();
+            SwissHashTable<Integer, Integer> scalar = new SwissHashTable<>(entries, new ScalarGroupMatcher());
+            SwissHashTable<Integer, Integer> swiss = new SwissHashTable<>(entries);
+            for (int i = 0; i < entries; i++) {
+                keys[i] = random.nextInt();
+                chained.put(keys[i], i);
+                scalar.put(keys[i], i);
+                swiss.put(keys[i], i);
+            }
+
+            // Half the probe keys hit, the rest are (almost certainly) misses
+            Integer[][] batches = new Integer[64][BATCH_SIZE];
+            for (Integer[] batch : batches) {
+                for (int i = 0; i < batch.length; i++) {
+                    batch[i] = random.nextBoolean() ? keys[random.nextInt(entries)] : random.nextInt();
+                }
+            }
+
+            for (int round = 0; round < ROUNDS; round++) {
+                long sink = 0;
+
+                long start = System.nanoTime();
+                for (Integer[] batch : batches) {
+                    for (Integer key : batch) {
+                        Integer value = chained.get(key);
+                        if (value != null) {
+                            sink += value;
+                        }
+                    }
+                }
+                long chainedNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (Integer[] batch : batches) {
+                    for (Integer key : batch) {
+                        Integer value = scalar.get(key);
+                        if (value != null) {
+                            sink -= value;
+                        }
+                    }
+                }
+                long scalarNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (Integer[] batch : batches) {
+                    for (Integer key : batch) {
+                        Integer value = swiss.get(key);
+                        if (value != null) {
+                            sink += value;
+                        }
+                    }
+                }
+                long swissNanos = System.nanoTime() - start;
+
+                long lookups = (long) batches.length * BATCH_SIZE;
+                System.out.printf("round %d: HashTable %.1f ns/key, Swiss scalar %.1f ns/key, Swiss default %.1f ns/key (check %d)%n",
+                        round, (double) chainedNanos / lookups, (double) scalarNanos / lookups,
+                        (double) swissNanos / lookups, sink);
+            }
+            System.out.println();
+        }
+    }
+
+    // Lookups where 90% of keys are absent, without and with a Bloom filter attached
+    public void runBloomFilteredMisses() {
+        System.out.println("=== HashTable misses with Bloom filter (" + TABLE_SIZE + " entries) ===");
+
+        HashTable<Integer, Integer> plain = new HashTable<>(TABLE_SIZE);
+        HashTable<Integer, Integer> filtered = new HashTable<>(TABLE_SIZE);
+        filtered.attachBloomFilter(new BlockedBloomFilter(TABLE_SIZE, 0.01));
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            plain.put(i, i);
+            filtered.put(i, i);
+        }
+
+        Integer[][] batches = randomKeyBatches(TABLE_SIZE * 10, 256);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long sink = 0;
+
+            long start = System.nanoTime();
+            for (Integer[] batch : batches) {
+                for (Integer key : batch) {
+                    Integer value = plain.get(key);
+                    if (value != null) {
+                        sink += value;
+                    }
+                }
+            }
+            long plainNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (Integer[] batch : batches) {
+                for (Integer key : batch) {
+                    Integer value = filtered.get(key);
+                    if (value != null) {
+                        sink -= value;
+                    }
+                }
+            }
+            long filteredNanos = System.nanoTime() - start;
+
+            long lookups = (long) batches.length * BATCH_SIZE;
+            System.out.printf("round %d: plain %.1f ns/key, filtered %.1f ns/key (check %d)%n",
+                    round, (double) plainNanos / lookups, (double) filteredNanos / lookups, sink);
+        }
+        System.out.println();
+    }
+
+    // Writes and restores a snapshot of TABLE_SIZE entries, raw and compressed
+    public void runSnapshot() {
+        System.out.println("=== HashTable snapshot (" + TABLE_SIZE + " entries) ===");
+
+        HashTable<Integer, String> table = new HashTable<>();
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            table.put(i, "value-" + i);
+        }
+
+        try {
+            Path file = Files.createTempFile("hashtable", ".snapshot");
+            try {
+                for (boolean compress : new boolean[] {false, true}) {
+                    for (int round = 0; round < 3; round++) {
+                        long start = System.nanoTime();
+                        HashTableSnapshot.write(table, file, HashTableCodec.INTEGER, HashTableCodec.STRING, compress);
+                        long writeNanos = System.nanoTime() - start;
+
+                        start = System.nanoTime();
+                        HashTable<Integer, String> restored =
+                                HashTableSnapshot.read(file, HashTableCodec.INTEGER, HashTableCodec.STRING);
+                        long readNanos = System.nanoTime() - start;
+
+                        System.out.printf("compress=%b round %d: %.1f MB, write %d ms, restore %d ms (%d entries)%n",
+                                compress, round, Files.size(file) / 1e6, writeNanos / 1_000_000,
+                                readNanos / 1_000_000, restored.size());
+                    }
+                }
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.out.println();
+    }
+
+    private static Integer[][] randomKeyBatches(int keyRange, int batches) {
+        Random random = new Random(42);
+        Integer[][] result = new Integer[batches][BATCH_SIZE];
+        for (Integer[] batch : result) {
+            for (int i = 0; i < batch.length; i++) {
+                batch[i] = random.nextInt(keyRange);
+            }
+        }
+        return result;
+    }
+}
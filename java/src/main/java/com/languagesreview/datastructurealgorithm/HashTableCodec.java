@@ -0,0 +1,69 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary encoding of hash table keys or values for {@link HashTableSnapshot}.
+ *
+ * {@code encode} appends one value to the buffer and may throw
+ * {@link java.nio.BufferOverflowException} when it does not fit; the snapshot writer then
+ * retries with more room. {@code decode} reads a value of exactly {@code length} bytes.
+ */
+public interface HashTableCodec<T> {
+    void encode(T value, ByteBuffer target);
+
+    T decode(ByteBuffer source, int length);
+
+    HashTableCodec<Integer> INTEGER = new HashTableCodec<>() {
+        @Override
+        public void encode(Integer value, ByteBuffer target) {
+            target.putInt(value);
+        }
+
+        @Override
+        public Integer decode(ByteBuffer source, int length) {
+            return source.getInt();
+        }
+    };
+
+    HashTableCodec<Long> LONG = new HashTableCodec<>() {
+        @Override
+        public void encode(Long value, ByteBuffer target) {
+            target.putLong(value);
+        }
+
+        @Override
+        public Long decode(ByteBuffer source, int length) {
+            return source.getLong();
+        }
+    };
+
+    HashTableCodec<String> STRING = new HashTableCodec<>() {
+        @Override
+        public void encode(String value, ByteBuffer target) {
+            target.put(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String decode(ByteBuffer source, int length) {
+            byte[] bytes = new byte[length];
+            source.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    HashTableCodec<byte[]> BYTES = new HashTableCodec<>() {
+        @Override
+        public void encode(byte[] value, ByteBuffer target) {
+            target.put(value);
+        }
+
+        @Override
+        public byte[] decode(ByteBuffer source, int length) {
+            byte[] bytes = new byte[length];
+            source.get(bytes);
+            return bytes;
+        }
+    };
+}
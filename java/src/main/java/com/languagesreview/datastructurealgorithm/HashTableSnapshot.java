@@ -0,0 +1,331 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Streaming binary snapshot of a {@link HashTable}, encoded with pluggable
+ * {@link HashTableCodec}s and written through a {@link FileChannel} with large direct
+ * buffers.
+ *
+ * File layout: a 32-byte header (magic, version, flags, block size, entry count), then
+ * blocks of {@code rawLength, storedLength, crc32c} followed by the stored bytes, ended by
+ * an all-zero block header. A block holds whole entries, each a length-prefixed key and a
+ * length-prefixed value (length -1 for a null value). With compression on, a block is
+ * stored deflated whenever that is smaller.
+ *
+ * A snapshot is written to a sibling temporary file and renamed over the target once it
+ * is on disk, so a crash leaves either the old snapshot or the new one. Restoring
+ * presizes the table from the entry count, bounded by what the file size could hold, and
+ * every length read from the file is checked against the file before anything is
+ * allocated for it.
+ */
+public final class HashTableSnapshot {
+    private static final int MAGIC = 0x48545331; // "HTS1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int BLOCK_HEADER_BYTES = 12;
+    private static final int BLOCK_BYTES = 1 << 20;
+    private static final int FLAG_COMPRESSED = 1;
+    private static final int NULL_LENGTH = -1;
+    private static final int MIN_ENTRY_BYTES = 2 * Integer.BYTES; // null key length, null value length
+    private static final int MAX_INFLATE_RATIO = 1032; // deflate cannot expand data further
+
+    private HashTableSnapshot() {
+    }
+
+    public static <K, V> void write(HashTable<K, V> table, Path file,
+                                    HashTableCodec<K> keyCodec, HashTableCodec<V> valueCodec,
+                                    boolean compress) throws IOException {
+        Path target = file.toAbsolutePath();
+        Path tempFile = target.resolveSibling(target.getFileName() + ".tmp");
+        boolean written = false;
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             BlockWriter writer = new BlockWriter(channel, compress)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(compress ? FLAG_COMPRESSED : 0)
+                    .putInt(BLOCK_BYTES)
+                    .putLong(table.size())
+                    .flip();
+            header.limit(HEADER_BYTES);
+            writeFully(channel, header);
+
+            for (Map.Entry<K, V> entry : table.entrySet()) {
+                writer.append(entry.getKey(), keyCodec, entry.getValue(), valueCodec);
+            }
+            writer.finish();
+            channel.force(true);
+            written = true;
+        } finally {
+            if (!written) {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+
+        Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory(target.getParent());
+    }
+
+    public static <K, V> HashTable<K, V> read(Path file, HashTableCodec<K> keyCodec,
+                                              HashTableCodec<V> valueCodec) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header, file);
+            header.flip();
+
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a hash table snapshot: " + file);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + " in " + file);
+            }
+            boolean compressed = (header.getInt() & FLAG_COMPRESSED) != 0;
+            int blockBytes = header.getInt();
+            long count = header.getLong();
+            if (blockBytes <= 0 || blockBytes > BLOCK_BYTES || count < 0 || count > Integer.MAX_VALUE) {
+                throw new IOException("Corrupt snapshot header in " + file);
+            }
+
+            // The header is not checksummed, so presize only for entries the file can hold;
+            // a compressed snapshot denser than that just resizes while loading
+            long fileBytes = channel.size();
+            HashTable<K, V> table = new HashTable<>((int) Math.min(count, fileBytes / MIN_ENTRY_BYTES));
+            ByteBuffer blockHeader = ByteBuffer.allocateDirect(BLOCK_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer stored = directBuffer(blockBytes);
+            ByteBuffer raw = directBuffer(blockBytes);
+            CRC32C crc = new CRC32C();
+            Inflater inflater = compressed ? new Inflater() : null;
+
+            try {
+                long restored = 0;
+                for (int block = 0; ; block++) {
+                    blockHeader.clear();
+                    readFully(channel, blockHeader, file);
+                    blockHeader.flip();
+                    int rawLength = blockHeader.getInt();
+                    int storedLength = blockHeader.getInt();
+                    int checksum = blockHeader.getInt();
+                    if (rawLength == 0) {
+                        break;
+                    }
+                    if (rawLength < 0 || storedLength <= 0 || storedLength > rawLength
+                            || storedLength > fileBytes - channel.position()
+                            || rawLength > Math.max(blockBytes, (long) storedLength * MAX_INFLATE_RATIO)
+                            || (storedLength < rawLength && inflater == null)) {
+                        throw new IOException("Corrupt block " + block + " in " + file);
+                    }
+
+                    if (stored.capacity() < storedLength) {
+                        stored = directBuffer(storedLength);
+                    }
+                    stored.clear().limit(storedLength);
+                    readFully(channel, stored, file);
+                    stored.flip();
+
+                    crc.reset();
+                    crc.update(stored.duplicate());
+                    if ((int) crc.getValue() != checksum) {
+                        throw new IOException("Checksum mismatch in block " + block + " of " + file);
+                    }
+
+                    ByteBuffer entries = stored;
+                    if (storedLength < rawLength) {
+                        if (raw.capacity() < rawLength) {
+                            raw = directBuffer(rawLength);
+                        }
+                        raw.clear();
+                        inflater.reset();
+                        inflater.setInput(stored);
+                        try {
+                            inflater.inflate(raw);
+                        } catch (DataFormatException e) {
+                            throw new IOException("Corrupt compressed block " + block + " in " + file, e);
+                        }
+                        if (raw.position() != rawLength) {
+                            throw new IOException("Corrupt compressed block " + block + " in " + file);
+                        }
+                        entries = raw.flip();
+                    }
+
+                    restored += readEntries(entries, table, keyCodec, valueCodec, file);
+                }
+
+                if (restored != count) {
+                    throw new IOException("Snapshot " + file + " holds " + restored
+                            + " entries but its header says " + count);
+                }
+                return table;
+            } finally {
+                if (inflater != null) {
+                    inflater.end();
+                }
+            }
+        }
+    }
+
+    private static <K, V> int readEntries(ByteBuffer entries, HashTable<K, V> table,
+                                          HashTableCodec<K> keyCodec, HashTableCodec<V> valueCodec,
+                                          Path file) throws IOException {
+        int count = 0;
+        while (entries.hasRemaining()) {
+            K key = readField(entries, keyCodec, file);
+            if (key == null) {
+                throw new IOException("Null key in snapshot " + file);
+            }
+            table.put(key, readField(entries, valueCodec, file));
+            count++;
+        }
+        return count;
+    }
+
+    private static <T> T readField(ByteBuffer entries, HashTableCodec<T> codec, Path file) throws IOException {
+        int length = entries.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        if (length < 0 || length > entries.remaining()) {
+            throw new IOException("Corrupt entry length " + length + " in " + file);
+        }
+
+        int end = entries.position() + length;
+        T value = codec.decode(entries, length);
+        entries.position(end);
+        return value;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer... buffers) throws IOException {
+        while (buffers[buffers.length - 1].hasRemaining()) {
+            channel.write(buffers);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, Path file) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Snapshot is truncated: " + file);
+            }
+        }
+    }
+
+    private static void forceDirectory(Path dir) throws IOException {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            if (!System.getProperty("os.name", "").startsWith("Windows")) {
+                throw e;
+            }
+        }
+    }
+
+    private static ByteBuffer directBuffer(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // Packs entries into a block buffer and writes each full block with its header
+    private static final class BlockWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final Deflater deflater;
+        private final CRC32C crc = new CRC32C();
+        private final ByteBuffer header = directBuffer(BLOCK_HEADER_BYTES);
+        private ByteBuffer raw = directBuffer(BLOCK_BYTES);
+        private ByteBuffer stored = directBuffer(BLOCK_BYTES);
+
+        BlockWriter(FileChannel channel, boolean compress) {
+            this.channel = channel;
+            this.deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+        }
+
+        <K, V> void append(K key, HashTableCodec<K> keyCodec, V value, HashTableCodec<V> valueCodec)
+                throws IOException {
+            while (true) {
+                int start = raw.position();
+                try {
+                    putField(key, keyCodec);
+                    putField(value, valueCodec);
+                    return;
+                } catch (BufferOverflowException e) {
+                    raw.position(start);
+                    if (start > 0) {
+                        flushBlock();
+                    } else {
+                        // A single entry larger than the block gets a bigger block of its own
+                        raw = directBuffer(raw.capacity() * 2);
+                        stored = directBuffer(raw.capacity());
+                    }
+                }
+            }
+        }
+
+        private <T> void putField(T value, HashTableCodec<T> codec) {
+            if (value == null) {
+                raw.putInt(NULL_LENGTH);
+                return;
+            }
+
+            int lengthAt = raw.position();
+            raw.putInt(0);
+            codec.encode(value, raw);
+            raw.putInt(lengthAt, raw.position() - lengthAt - Integer.BYTES);
+        }
+
+        private void flushBlock() throws IOException {
+            if (raw.position() == 0) {
+                return;
+            }
+
+            raw.flip();
+            int rawLength = raw.remaining();
+            ByteBuffer out = raw;
+
+            if (deflater != null) {
+                deflater.reset();
+                deflater.setInput(raw.duplicate());
+                deflater.finish();
+                stored.clear();
+                deflater.deflate(stored);
+                // Keep the block raw unless deflating finished and actually saved space
+                if (deflater.finished() && stored.position() < rawLength) {
+                    out = stored.flip();
+                }
+            }
+
+            crc.reset();
+            crc.update(out.duplicate());
+            header.clear();
+            header.putInt(rawLength).putInt(out.remaining()).putInt((int) crc.getValue()).flip();
+            writeFully(channel, header, out);
+            raw.clear();
+        }
+
+        void finish() throws IOException {
+            flushBlock();
+            header.clear();
+            header.putInt(0).putInt(0).putInt(0).flip();
+            writeFully(channel, header);
+        }
+
+        @Override
+        public void close() {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+}
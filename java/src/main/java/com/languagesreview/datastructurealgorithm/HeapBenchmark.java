@@ -0,0 +1,363 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Simple timing harness for the heap implementations.
+ * Run with a large heap, e.g. {@code java -Xmx4g ...HeapBenchmark}.
+ */
+public class HeapBenchmark {
+    private static final int[] SIZES = {10_000, 1_000_000, 10_000_000};
+    private static final int[] ARITIES = {2, 4, 8};
+    private static final int ROUNDS = 5;
+    private static final int GRAPH_VERTICES = 1_000_000;
+    private static final int EDGES_PER_VERTEX = 5;
+    private static final int MAX_WEIGHT = 1000;
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+    private static final int QUEUE_PREFILL = 1_000_000;
+    private static final int QUEUE_OPERATIONS = 4_000_000;
+    private static final Object TASK = new Object();
+    private static final int TIMERS = 1_000_000;
+    private static final int MAX_TIMER_DELAY = 1 << 20; // ticks
+    
+    public static void main(String[] args) throws InterruptedException {
+        HeapBenchmark benchmark = new HeapBenchmark();
+        benchmark.runDaryHeap();
+        benchmark.runShortestPath();
+        benchmark.runConcurrentQueues();
+        benchmark.runTimers();
+    }
+    
+    // Fills each heap with n random ints, then drains it, against the binary MinHeap
+    public void runDaryHeap() {
+        for (int n : SIZES) {
+            System.out.println("=== insert / extractMin, " + n + " elements ===");
+            int[] values = new Random(42).ints(n).toArray();
+            
+            for (int round = 0; round < ROUNDS; round++) {
+                StringBuilder line = new StringBuilder("round " + round + ":");
+                long sink = 0;
+                
+                MinHeap binary = new MinHeap(n);
+                long start = System.nanoTime();
+                for (int value : values) {
+                    binary.insert(value);
+                }
+                long insertNanos = System.nanoTime() - start;
+                start = System.nanoTime();
+                while (!binary.isEmpty()) {
+                    sink += binary.extractMin();
+                }
+                long extractNanos = System.nanoTime() - start;
+                line.append(String.format(" MinHeap %.1f/%.1f", (double) insertNanos / n, (double) extractNanos / n));
+                
+                for (int arity : ARITIES) {
+                    DaryMinHeap heap = new DaryMinHeap(arity, n);
+                    start = System.nanoTime();
+                    for (int value : values) {
+                        heap.insert(value);
+                    }
+                    insertNanos = System.nanoTime() - start;
+                    start = System.nanoTime();
+                    while (!heap.isEmpty()) {
+                        sink -= heap.extractMin();
+                    }
+                    extractNanos = System.nanoTime() - start;
+                    line.append(String.format(", %d-ary %.1f/%.1f", arity,
+                            (double) insertNanos / n, (double) extractNanos / n));
+                }
+                
+                System.out.println(line + " ns/op insert/extract (check " + sink + ")");
+            }
+            System.out.println();
+        }
+    }
+    
+    // Dijkstra on a random sparse digraph with each frontier, checking they agree
+    public void runShortestPath() {
+        System.out.println("=== Dijkstra, " + GRAPH_VERTICES + " vertices, "
+                + (long) GRAPH_VERTICES * EDGES_PER_VERTEX + " edges ===");
+        
+        // Adjacency in flat arrays: the edges of v are targets[offsets[v] .. offsets[v + 1])
+        Random random = new Random(42);
+        int[] offsets = new int[GRAPH_VERTICES + 1];
+        int[] targets = new int[GRAPH_VERTICES * EDGES_PER_VERTEX];
+        int[] weights = new int[targets.length];
+        for (int v = 0; v < GRAPH_VERTICES; v++) {
+            offsets[v + 1] = offsets[v] + EDGES_PER_VERTEX;
+        }
+        for (int e = 0; e < targets.length; e++) {
+            targets[e] = random.nextInt(GRAPH_VERTICES);
+            weights[e] = 1 + random.nextInt(MAX_WEIGHT);
+        }
+        
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            long[] expected = dijkstraIndexed(offsets, targets, weights);
+            long indexedNanos = System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            long[] pairing = dijkstraPairing(offsets, targets, weights);
+            long pairingNanos = System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            long[] radix = dijkstraRadix(offsets, targets, weights);
+            long radixNanos = System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            long[] lazy = dijkstraLazy(offsets, targets, weights);
+            long lazyNanos = System.nanoTime() - start;
+            
+            boolean agree = Arrays.equals(expected, pairing) && Arrays.equals(expected, radix)
+                    && Arrays.equals(expected, lazy);
+            System.out.printf("round %d: IndexedMinHeap %d ms, PairingHeap %d ms, RadixHeap %d ms, "
+                            + "LongMinHeap (lazy) %d ms%s%n", round, indexedNanos / 1_000_000,
+                    pairingNanos / 1_000_000, radixNanos / 1_000_000, lazyNanos / 1_000_000,
+                    agree ? "" : " MISMATCH");
+        }
+        System.out.println();
+    }
+    
+    private static long[] newDistances() {
+        long[] dist = new long[GRAPH_VERTICES];
+        Arrays.fill(dist, Long.MAX_VALUE);
+        dist[0] = 0;
+        return dist;
+    }
+    
+    private static long[] dijkstraIndexed(int[] offsets, int[] targets, int[] weights) {
+        long[] dist = newDistances();
+        IndexedMinHeap frontier = new IndexedMinHeap(GRAPH_VERTICES);
+        frontier.insert(0, 0);
+        while (!frontier.isEmpty()) {
+            int u = frontier.extractMin();
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                long candidate = dist[u] + weights[e];
+                if (candidate < dist[v]) {
+                    if (dist[v] == Long.MAX_VALUE) {
+                        frontier.insert(v, candidate);
+                    } else {
+                        frontier.decreaseKey(v, candidate);
+                    }
+                    dist[v] = candidate;
+                }
+            }
+        }
+        return dist;
+    }
+    
+    private static long[] dijkstraPairing(int[] offsets, int[] targets, int[] weights) {
+        long[] dist = newDistances();
+        @SuppressWarnings("unchecked")
+        PairingHeap.Handle<Integer>[] handles = new PairingHeap.Handle[GRAPH_VERTICES];
+        PairingHeap<Integer> frontier = new PairingHeap<>();
+        handles[0] = frontier.insert(0, 0);
+        while (!frontier.isEmpty()) {
+            int u = frontier.extractMin().value();
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                long candidate = dist[u] + weights[e];
+                if (candidate < dist[v]) {
+                    if (handles[v] == null) {
+                        handles[v] = frontier.insert(candidate, v);
+                    } else {
+                        frontier.decreaseKey(handles[v], candidate);
+                    }
+                    dist[v] = candidate;
+                }
+            }
+        }
+        return dist;
+    }
+    
+    // Lazy duplicates: stale entries are skipped when their key no longer matches dist
+    private static long[] dijkstraRadix(int[] offsets, int[] targets, int[] weights) {
+        long[] dist = newDistances();
+        RadixHeap frontier = new RadixHeap();
+        frontier.insert(0, 0);
+        while (!frontier.isEmpty()) {
+            long key = frontier.getMinKey();
+            int u = (int) frontier.extractMinPayload();
+            if (key != dist[u]) {
+                continue;
+            }
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                long candidate = key + weights[e];
+                if (candidate < dist[v]) {
+                    dist[v] = candidate;
+                    frontier.insert(candidate, v);
+                }
+            }
+        }
+        return dist;
+    }
+    
+    private static long[] dijkstraLazy(int[] offsets, int[] targets, int[] weights) {
+        long[] dist = newDistances();
+        LongMinHeap frontier = new LongMinHeap();
+        frontier.insert(0, 0);
+        while (!frontier.isEmpty()) {
+            long key = frontier.getMinKey();
+            int u = (int) frontier.extractMinPayload();
+            if (key != dist[u]) {
+                continue;
+            }
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                long candidate = key + weights[e];
+                if (candidate < dist[v]) {
+                    dist[v] = candidate;
+                    frontier.insert(candidate, v);
+                }
+            }
+        }
+        return dist;
+    }
+    
+    /**
+     * Threads alternate insert and extractMin on a queue prefilled with random keys,
+     * splitting a fixed number of operations between them. The baseline is a LongMinHeap
+     * behind one lock.
+     */
+    public void runConcurrentQueues() throws InterruptedException {
+        System.out.println("=== concurrent insert / extractMin, " + QUEUE_OPERATIONS + " operations ===");
+        Map<String, IntFunction<ConcurrentMinQueue<Object>>> queues = new LinkedHashMap<>();
+        queues.put("LockedLongMinHeap", threads -> new LockedMinQueue());
+        queues.put("SkipListMinQueue", threads -> new SkipListMinQueue<>());
+        queues.put("MultiQueue", threads -> new MultiQueue<>(threads, 2));
+        
+        for (int threads : THREAD_COUNTS) {
+            StringBuilder line = new StringBuilder(threads + " threads:");
+            for (Map.Entry<String, IntFunction<ConcurrentMinQueue<Object>>> entry : queues.entrySet()) {
+                ConcurrentMinQueue<Object> queue = entry.getValue().apply(threads);
+                Random random = new Random(42);
+                for (int i = 0; i < QUEUE_PREFILL; i++) {
+                    queue.insert(random.nextInt(), TASK);
+                }
+                
+                int perThread = QUEUE_OPERATIONS / threads / 2;
+                Thread[] workers = new Thread[threads];
+                for (int t = 0; t < threads; t++) {
+                    workers[t] = new Thread(() -> {
+                        ThreadLocalRandom local = ThreadLocalRandom.current();
+                        for (int i = 0; i < perThread; i++) {
+                            queue.insert(local.nextInt(), TASK);
+                            queue.extractMin();
+                        }
+                    });
+                }
+                
+                long start = System.nanoTime();
+                for (Thread worker : workers) {
+                    worker.start();
+                }
+                for (Thread worker : workers) {
+                    worker.join();
+                }
+                long nanos = System.nanoTime() - start;
+                line.append(String.format(" %s %.2f", entry.getKey(), perThread * 2.0 * threads * 1000 / nanos));
+            }
+            System.out.println(line + " Mops/s");
+        }
+        System.out.println();
+    }
+    
+    /**
+     * Schedules TIMERS timeouts with random delays, cancels half of them, then fires the
+     * rest, on the TimingWheel and on a heap of deadlines. The heap is an IndexedMinHeap
+     * keyed by deadline, since cancelling needs delete by id.
+     */
+    public void runTimers() {
+        System.out.println("=== timers, " + TIMERS + " pending, half cancelled ===");
+        Random random = new Random(42);
+        long[] delays = new long[TIMERS];
+        for (int i = 0; i < TIMERS; i++) {
+            delays[i] = 1 + random.nextInt(MAX_TIMER_DELAY);
+        }
+        int[] cancelOrder = new Random(7).ints(0, TIMERS).distinct().limit(TIMERS / 2).toArray();
+        
+        for (int round = 0; round < ROUNDS; round++) {
+            int[] fired = new int[1];
+            Runnable task = () -> fired[0]++;
+            
+            TimingWheel wheel = new TimingWheel(1, TimeUnit.MILLISECONDS);
+            TimingWheel.Timeout[] timeouts = new TimingWheel.Timeout[TIMERS];
+            long start = System.nanoTime();
+            for (int i = 0; i < TIMERS; i++) {
+                timeouts[i] = wheel.schedule(task, delays[i], TimeUnit.MILLISECONDS);
+            }
+            long wheelSchedule = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int id : cancelOrder) {
+                timeouts[id].cancel();
+            }
+            long wheelCancel = System.nanoTime() - start;
+            start = System.nanoTime();
+            wheel.advance(MAX_TIMER_DELAY);
+            long wheelFire = System.nanoTime() - start;
+            int wheelFired = fired[0];
+            
+            fired[0] = 0;
+            IndexedMinHeap deadlines = new IndexedMinHeap(TIMERS);
+            Runnable[] tasks = new Runnable[TIMERS];
+            start = System.nanoTime();
+            for (int i = 0; i < TIMERS; i++) {
+                tasks[i] = task;
+                deadlines.insert(i, delays[i]);
+            }
+            long heapSchedule = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int id : cancelOrder) {
+                deadlines.delete(id);
+                tasks[id] = null;
+            }
+            long heapCancel = System.nanoTime() - start;
+            start = System.nanoTime();
+            while (!deadlines.isEmpty()) {
+                tasks[deadlines.extractMin()].run();
+            }
+            long heapFire = System.nanoTime() - start;
+            
+            System.out.printf("round %d: TimingWheel schedule %.1f, cancel %.1f ns/op, fire %d ms; "
+                            + "IndexedMinHeap schedule %.1f, cancel %.1f ns/op, fire %d ms%s%n", round,
+                    (double) wheelSchedule / TIMERS, (double) wheelCancel / cancelOrder.length, wheelFire / 1_000_000,
+                    (double) heapSchedule / TIMERS, (double) heapCancel / cancelOrder.length, heapFire / 1_000_000,
+                    wheelFired == fired[0] ? "" : " MISMATCH");
+        }
+        System.out.println();
+    }
+    
+    // What the concurrent queues replace: one heap, one lock
+    private static final class LockedMinQueue implements ConcurrentMinQueue<Object> {
+        private final LongMinHeap heap = new LongMinHeap();
+        
+        @Override
+        public synchronized void insert(long key, Object value) {
+            heap.insert(key);
+        }
+        
+        @Override
+        public synchronized Object extractMin() {
+            if (heap.isEmpty()) {
+                return null;
+            }
+            heap.extractMin();
+            return TASK;
+        }
+        
+        @Override
+        public synchronized boolean isEmpty() {
+            return heap.isEmpty();
+        }
+        
+        @Override
+        public synchronized int size() {
+            return heap.size();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.util.*;
+
+/**
+ * Indexed Min Heap: every element is an id in [0, capacity) with a long key.
+ * A position map follows each id through the sifts, so contains, decreaseKey,
+ * changeKey and delete by id are O(1) or O(log n) instead of a linear scan.
+ */
+public class IndexedMinHeap {
+    private final int[] heap;      // heap slot -> id
+    private final int[] positions; // id -> heap slot, -1 when absent
+    private final long[] keys;     // id -> key
+    private int size;
+    
+    public IndexedMinHeap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+        
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.keys = new long[capacity];
+        Arrays.fill(positions, -1);
+    }
+    
+    public void insert(int id, long key) {
+        checkId(id);
+        if (positions[id] >= 0) {
+            throw new IllegalArgumentException("Id already in heap: " + id);
+        }
+        
+        keys[id] = key;
+        positions[id] = size;
+        heap[size] = id;
+        size++;
+        heapifyUp(size - 1);
+    }
+    
+    public boolean contains(int id) {
+        checkId(id);
+        return positions[id] >= 0;
+    }
+    
+    public long keyOf(int id) {
+        checkPresent(id);
+        return keys[id];
+    }
+    
+    public int minId() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        return heap[0];
+    }
+    
+    public long minKey() {
+        return keys[minId()];
+    }
+    
+    // Removes the element with the smallest key and returns its id
+    public int extractMin() {
+        int min = minId();
+        removeAt(0);
+        return min;
+    }
+    
+    public void decreaseKey(int id, long newKey) {
+        checkPresent(id);
+        if (newKey > keys[id]) {
+            throw new IllegalArgumentException("New key is greater than current key");
+        }
+        
+        keys[id] = newKey;
+        heapifyUp(positions[id]);
+    }
+    
+    public void changeKey(int id, long newKey) {
+        checkPresent(id);
+        long oldKey = keys[id];
+        keys[id] = newKey;
+        
+        if (newKey < oldKey) {
+            heapifyUp(positions[id]);
+        } else {
+            heapifyDown(positions[id]);
+        }
+    }
+    
+    public void delete(int id) {
+        checkPresent(id);
+        removeAt(positions[id]);
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+    
+    private void removeAt(int index) {
+        int removed = heap[index];
+        size--;
+        positions[removed] = -1;
+        if (index == size) {
+            return;
+        }
+        
+        // Move the last element into the hole; it may need to go either way
+        int last = heap[size];
+        heap[index] = last;
+        positions[last] = index;
+        if (index > 0 && keys[last] < keys[heap[(index - 1) / 2]]) {
+            heapifyUp(index);
+        } else {
+            heapifyDown(index);
+        }
+    }
+    
+    private void heapifyUp(int index) {
+        int id = heap[index];
+        long key = keys[id];
+        
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (keys[heap[parent]] <= key) {
+                break;
+            }
+            move(heap[parent], index);
+            index = parent;
+        }
+        move(id, index);
+    }
+    
+    private void heapifyDown(int index) {
+        int id = heap[index];
+        long key = keys[id];
+        
+        while (true) {
+            int smallest = 2 * index + 1;
+            if (smallest >= size) {
+                break;
+            }
+            if (smallest + 1 < size && keys[heap[smallest + 1]] < keys[heap[smallest]]) {
+                smallest++;
+            }
+            if (keys[heap[smallest]] >= key) {
+                break;
+            }
+            move(heap[smallest], index);
+            index = smallest;
+        }
+        move(id, index);
+    }
+    
+    private void move(int id, int index) {
+        heap[index] = id;
+        positions[id] = index;
+    }
+    
+    private void checkId(int id) {
+        if (id < 0 || id >= positions.length) {
+            throw new IllegalArgumentException("Id out of range: " + id);
+        }
+    }
+    
+    private void checkPresent(int id) {
+        checkId(id);
+        if (positions[id] < 0) {
+            throw new NoSuchElementException("Id not in heap: " + id);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        if (size == 0) {
+            return "[]";
+        }
+        
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        
+        for (int i = 0; i < size; i++) {
+            sb.append(heap[i]).append("=").append(keys[heap[i]]);
+            if (i < size - 1) {
+                sb.append(", ");
+            }
+        }
+        
+        sb.append("]");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,226 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.util.*;
+
+/**
+ * Hash Table specialised for {@code int} keys and object values.
+ * Keys are stored unboxed in flat arrays with linear probing, and slot
+ * occupancy is tracked separately so every key value, including 0, is usable.
+ */
+public class IntObjectHashTable<V> {
+    /**
+     * Callback used by {@link #forEach} to visit entries without allocating.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(int key, V value);
+    }
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final double LOAD_FACTOR = 0.75;
+
+    private int[] keys;
+    private Object[] values;
+    private boolean[] used;
+    private int mask;
+    private int size;
+    private int threshold;
+
+    public IntObjectHashTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntObjectHashTable(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+        allocate(tableSizeFor((int) Math.ceil(initialCapacity / LOAD_FACTOR)));
+    }
+
+    public void put(int key, V value) {
+        int index = hash(key) & mask;
+
+        while (used[index]) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+
+        if (size >= threshold) {
+            throw new IllegalStateException("Hash table is full");
+        }
+        used[index] = true;
+        keys[index] = key;
+        values[index] = value;
+        size++;
+
+        if (size >= threshold) {
+            resize();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int index = findIndex(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(int key, V defaultValue) {
+        int index = findIndex(key);
+        return index < 0 ? defaultValue : (V) values[index];
+    }
+
+    public boolean containsKey(int key) {
+        return findIndex(key) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int index = findIndex(key);
+        if (index < 0) {
+            return null;
+        }
+
+        V oldValue = (V) values[index];
+        shiftBack(index);
+        size--;
+        return oldValue;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> consumer) {
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                consumer.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    public int[] keys() {
+        int[] result = new int[size];
+        int n = 0;
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                result[n++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    private int findIndex(int key) {
+        int index = hash(key) & mask;
+
+        while (used[index]) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    // Closes the gap left at index by pulling back entries whose probe chain crosses it
+    private void shiftBack(int index) {
+        int next = (index + 1) & mask;
+
+        while (used[next]) {
+            int home = hash(keys[next]) & mask;
+            boolean reachable = index <= next
+                    ? (index < home && home <= next)
+                    : (index < home || home <= next);
+            if (!reachable) {
+                keys[index] = keys[next];
+                values[index] = values[next];
+                index = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        used[index] = false;
+        values[index] = null;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int n = DEFAULT_CAPACITY;
+        while (n < capacity && n < MAXIMUM_CAPACITY) {
+            n <<= 1;
+        }
+        return n;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void resize() {
+        if (keys.length == MAXIMUM_CAPACITY) {
+            // Cannot double any further; keep one slot free so probe loops terminate
+            threshold = MAXIMUM_CAPACITY - 1;
+            return;
+        }
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(oldKeys.length * 2);
+
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                int index = hash(oldKeys[i]) & mask;
+                while (used[index]) {
+                    index = (index + 1) & mask;
+                }
+                used[index] = true;
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+
+        boolean first = true;
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                sb.append(keys[i]).append("=").append(values[i]);
+                first = false;
+            }
+        }
+
+        sb.append("}");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.util.function.IntConsumer;
+import java.util.stream.Collector;
+
+/**
+ * Keeps the k largest ints of a stream in a {@link MinHeap} of size k. Once the heap is
+ * full a larger value replaces the current minimum with one sift down, so each value
+ * costs O(log k) at worst and nothing is allocated per value.
+ *
+ * Works directly as an IntConsumer, e.g.
+ * {@code intStream.collect(() -> new IntTopK(k), IntTopK::accept, IntTopK::combine)},
+ * or as a boxed stream {@link #collector(int)}.
+ */
+public class IntTopK implements IntConsumer {
+    private final MinHeap heap;
+    private final int k;
+    
+    public IntTopK(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("K must be positive");
+        }
+        this.k = k;
+        this.heap = new MinHeap(k);
+    }
+    
+    @Override
+    public void accept(int value) {
+        if (heap.size() < k) {
+            heap.insert(value);
+        } else if (value > heap.getMin()) {
+            heap.replaceMin(value);
+        }
+    }
+    
+    public IntTopK combine(IntTopK other) {
+        for (int value : other.toSortedArray()) {
+            accept(value);
+        }
+        return this;
+    }
+    
+    // The values kept so far, largest first
+    public int[] toSortedArray() {
+        int[] result = new int[heap.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = heap.extractMin();
+        }
+        heap.buildHeap(result);
+        return result;
+    }
+    
+    public int size() {
+        return heap.size();
+    }
+    
+    public int k() {
+        return k;
+    }
+    
+    public static Collector<Integer, IntTopK, int[]> collector(int k) {
+        return Collector.of(() -> new IntTopK(k), IntTopK::accept, IntTopK::combine, IntTopK::toSortedArray);
+    }
+}
@@ -0,0 +1,341 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.util.*;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Merges k ascending runs with a loser tree: every internal node remembers the loser of
+ * the match played there, so after the winner's run advances, replaying its path to the
+ * root takes exactly ceil(log2 k) comparisons, one per level, against half of what a
+ * binary heap's sift down needs. Equal keys come out in run order, so the merge is
+ * stable.
+ *
+ * Runs may be int[] or long[] arrays, primitive iterators or plain iterators with a
+ * comparator. Runs are assumed to be sorted; this is not checked. The primitive merges
+ * allocate nothing per element.
+ */
+public final class KWayMerge {
+    private KWayMerge() {
+    }
+    
+    public static int[] merge(int[]... runs) {
+        int[] positions = new int[runs.length];
+        long total = 0;
+        for (int[] run : runs) {
+            total += run.length;
+        }
+        int[] result = new int[checkedLength(total)];
+        
+        LongLoserTree tree = new LongLoserTree(runs.length) {
+            @Override
+            boolean load(int run) {
+                if (positions[run] == runs[run].length) {
+                    return false;
+                }
+                keys[run] = runs[run][positions[run]++];
+                return true;
+            }
+        };
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (int) tree.next();
+        }
+        return result;
+    }
+    
+    public static long[] merge(long[]... runs) {
+        int[] positions = new int[runs.length];
+        long total = 0;
+        for (long[] run : runs) {
+            total += run.length;
+        }
+        long[] result = new long[checkedLength(total)];
+        
+        LongLoserTree tree = new LongLoserTree(runs.length) {
+            @Override
+            boolean load(int run) {
+                if (positions[run] == runs[run].length) {
+                    return false;
+                }
+                keys[run] = runs[run][positions[run]++];
+                return true;
+            }
+        };
+        for (int i = 0; i < result.length; i++) {
+            result[i] = tree.next();
+        }
+        return result;
+    }
+    
+    public static PrimitiveIterator.OfInt mergeInts(List<? extends PrimitiveIterator.OfInt> runs) {
+        PrimitiveIterator.OfInt[] sources = runs.toArray(new PrimitiveIterator.OfInt[0]);
+        LongLoserTree tree = new LongLoserTree(sources.length) {
+            @Override
+            boolean load(int run) {
+                if (!sources[run].hasNext()) {
+                    return false;
+                }
+                keys[run] = sources[run].nextInt();
+                return true;
+            }
+        };
+        
+        return new PrimitiveIterator.OfInt() {
+            @Override
+            public boolean hasNext() {
+                return tree.hasNext();
+            }
+            
+            @Override
+            public int nextInt() {
+                return (int) tree.next();
+            }
+        };
+    }
+    
+    public static PrimitiveIterator.OfLong mergeLongs(List<? extends PrimitiveIterator.OfLong> runs) {
+        PrimitiveIterator.OfLong[] sources = runs.toArray(new PrimitiveIterator.OfLong[0]);
+        LongLoserTree tree = new LongLoserTree(sources.length) {
+            @Override
+            boolean load(int run) {
+                if (!sources[run].hasNext()) {
+                    return false;
+                }
+                keys[run] = sources[run].nextLong();
+                return true;
+            }
+        };
+        
+        return new PrimitiveIterator.OfLong() {
+            @Override
+            public boolean hasNext() {
+                return tree.hasNext();
+            }
+            
+            @Override
+            public long nextLong() {
+                return tree.next();
+            }
+        };
+    }
+    
+    public static <T> Iterator<T> merge(List<? extends Iterator<? extends T>> runs, Comparator<? super T> comparator) {
+        return new ObjectLoserTree<>(runs, comparator);
+    }
+    
+    // Lazily merged view of the runs as a stream
+    public static IntStream stream(int[]... runs) {
+        List<PrimitiveIterator.OfInt> sources = new ArrayList<>(runs.length);
+        long total = 0;
+        for (int[] run : runs) {
+            sources.add(Arrays.stream(run).iterator());
+            total += run.length;
+        }
+        return StreamSupport.intStream(Spliterators.spliterator(mergeInts(sources), total,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+    
+    public static LongStream stream(long[]... runs) {
+        List<PrimitiveIterator.OfLong> sources = new ArrayList<>(runs.length);
+        long total = 0;
+        for (long[] run : runs) {
+            sources.add(Arrays.stream(run).iterator());
+            total += run.length;
+        }
+        return StreamSupport.longStream(Spliterators.spliterator(mergeLongs(sources), total,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+    
+    // Collects a stream of sorted runs into one merged array
+    public static Collector<int[], ?, int[]> mergingInts() {
+        return Collector.<int[], List<int[]>, int[]>of(ArrayList::new, List::add, (a, b) -> {
+            a.addAll(b);
+            return a;
+        }, runs -> merge(runs.toArray(new int[0][])));
+    }
+    
+    public static Collector<long[], ?, long[]> mergingLongs() {
+        return Collector.<long[], List<long[]>, long[]>of(ArrayList::new, List::add, (a, b) -> {
+            a.addAll(b);
+            return a;
+        }, runs -> merge(runs.toArray(new long[0][])));
+    }
+    
+    private static int checkedLength(long total) {
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Merged runs would hold " + total + " elements");
+        }
+        return (int) total;
+    }
+    
+    /**
+     * Loser tree over long keys. Runs are the leaves k .. 2k - 1 of an implicit binary
+     * tree and losers[1 .. k - 1] hold the loser of each internal match. Subclasses load
+     * the next key of a run into keys[run].
+     */
+    private abstract static class LongLoserTree {
+        final long[] keys;
+        private final boolean[] exhausted;
+        private final int[] losers;
+        private final int k;
+        private int winner;
+        private boolean started;
+        
+        LongLoserTree(int k) {
+            this.k = k;
+            this.keys = new long[k];
+            this.exhausted = new boolean[k];
+            this.losers = new int[Math.max(1, k)];
+        }
+        
+        // Loads the next key of run into keys[run], or returns false when the run is done
+        abstract boolean load(int run);
+        
+        boolean hasNext() {
+            start();
+            return k > 0 && !exhausted[winner];
+        }
+        
+        long next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            
+            int run = winner;
+            long key = keys[run];
+            exhausted[run] = !load(run);
+            for (int node = (run + k) >> 1; node > 0; node >>= 1) {
+                if (beats(losers[node], run)) {
+                    int t = losers[node];
+                    losers[node] = run;
+                    run = t;
+                }
+            }
+            winner = run;
+            return key;
+        }
+        
+        // The first keys are loaded lazily so subclass fields are set by then
+        private void start() {
+            if (started) {
+                return;
+            }
+            started = true;
+            for (int run = 0; run < k; run++) {
+                exhausted[run] = !load(run);
+            }
+            if (k > 0) {
+                winner = build(1);
+            }
+        }
+        
+        // Plays the matches below node, stores their losers and returns the winner
+        private int build(int node) {
+            if (node >= k) {
+                return node - k;
+            }
+            int left = build(2 * node);
+            int right = build(2 * node + 1);
+            if (beats(right, left)) {
+                losers[node] = left;
+                return right;
+            }
+            losers[node] = right;
+            return left;
+        }
+        
+        private boolean beats(int a, int b) {
+            if (exhausted[a] || exhausted[b]) {
+                return !exhausted[a] || (exhausted[b] && a < b);
+            }
+            return keys[a] < keys[b] || (keys[a] == keys[b] && a < b);
+        }
+    }
+    
+    // The same tree over objects, driven directly as an iterator
+    private static final class ObjectLoserTree<T> implements Iterator<T> {
+        private final Iterator<? extends T>[] sources;
+        private final Object[] keys;
+        private final boolean[] exhausted;
+        private final int[] losers;
+        private final Comparator<? super T> comparator;
+        private final int k;
+        private int winner;
+        
+        @SuppressWarnings("unchecked")
+        ObjectLoserTree(List<? extends Iterator<? extends T>> runs, Comparator<? super T> comparator) {
+            this.sources = runs.toArray(new Iterator[0]);
+            this.comparator = Objects.requireNonNull(comparator);
+            this.k = sources.length;
+            this.keys = new Object[k];
+            this.exhausted = new boolean[k];
+            this.losers = new int[Math.max(1, k)];
+            for (int run = 0; run < k; run++) {
+                load(run);
+            }
+            if (k > 0) {
+                winner = build(1);
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return k > 0 && !exhausted[winner];
+        }
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            
+            int run = winner;
+            T key = (T) keys[run];
+            load(run);
+            for (int node = (run + k) >> 1; node > 0; node >>= 1) {
+                if (beats(losers[node], run)) {
+                    int t = losers[node];
+                    losers[node] = run;
+                    run = t;
+                }
+            }
+            winner = run;
+            return key;
+        }
+        
+        private void load(int run) {
+            if (sources[run].hasNext()) {
+                keys[run] = sources[run].next();
+            } else {
+                keys[run] = null;
+                exhausted[run] = true;
+            }
+        }
+        
+        private int build(int node) {
+            if (node >= k) {
+                return node - k;
+            }
+            int left = build(2 * node);
+            int right = build(2 * node + 1);
+            if (beats(right, left)) {
+                losers[node] = left;
+                return right;
+            }
+            losers[node] = right;
+            return left;
+        }
+        
+        @SuppressWarnings("unchecked")
+        private boolean beats(int a, int b) {
+            if (exhausted[a] || exhausted[b]) {
+                return !exhausted[a] || (exhausted[b] && a < b);
+            }
+            int c = comparator.compare((T) keys[a], (T) keys[b]);
+            return c < 0 || (c == 0 && a < b);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.util.*;
+
+/**
+ * Growable Min Heap of primitive long keys, each carrying a long payload in a parallel
+ * array (an int payload fits as well), so event queues keyed by timestamps never box.
+ */
+public class LongMinHeap {
+    private static final int DEFAULT_CAPACITY = 16;
+    
+    private long[] keys;
+    private long[] payloads;
+    private int size;
+    
+    public LongMinHeap() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    public LongMinHeap(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+        keys = new long[Math.max(1, initialCapacity)];
+        payloads = new long[keys.length];
+    }
+    
+    public void insert(long key) {
+        insert(key, 0);
+    }
+    
+    public void insert(long key, long payload) {
+        ensureCapacity(size + 1);
+        size++;
+        heapifyUp(size - 1, key, payload);
+    }
+    
+    /**
+     * Adds all pairs (payloads may be null for zero payloads). A batch at least as large as
+     * the heap is appended and heapified bottom-up in O(n + m); smaller batches are sifted
+     * up one by one, which is cheaper than touching every existing element.
+     */
+    public void addAll(long[] newKeys, long[] newPayloads) {
+        if (newPayloads != null && newPayloads.length != newKeys.length) {
+            throw new IllegalArgumentException("Keys and payloads differ in length");
+        }
+        
+        ensureCapacity(size + newKeys.length);
+        if (newKeys.length < size) {
+            for (int i = 0; i < newKeys.length; i++) {
+                size++;
+                heapifyUp(size - 1, newKeys[i], newPayloads != null ? newPayloads[i] : 0);
+            }
+            return;
+        }
+        
+        System.arraycopy(newKeys, 0, keys, size, newKeys.length);
+        if (newPayloads != null) {
+            System.arraycopy(newPayloads, 0, payloads, size, newKeys.length);
+        } else {
+            Arrays.fill(payloads, size, size + newKeys.length, 0);
+        }
+        size += newKeys.length;
+        
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            heapifyDown(i, keys[i], payloads[i]);
+        }
+    }
+    
+    public long getMinKey() {
+        checkNotEmpty();
+        return keys[0];
+    }
+    
+    public long getMinPayload() {
+        checkNotEmpty();
+        return payloads[0];
+    }
+    
+    // Removes the smallest key and returns it; read getMinPayload() first if needed
+    public long extractMin() {
+        checkNotEmpty();
+        long min = keys[0];
+        size--;
+        if (size > 0) {
+            heapifyDown(0, keys[size], payloads[size]);
+        }
+        return min;
+    }
+    
+    // Removes the smallest key and returns its payload
+    public long extractMinPayload() {
+        checkNotEmpty();
+        long payload = payloads[0];
+        extractMin();
+        return payload;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public void clear() {
+        size = 0;
+    }
+    
+    private void heapifyUp(int index, long key, long payload) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (keys[parent] <= key) {
+                break;
+            }
+            keys[index] = keys[parent];
+            payloads[index] = payloads[parent];
+            index = parent;
+        }
+        keys[index] = key;
+        payloads[index] = payload;
+    }
+    
+    // Sifts the pair down from index, treating that slot as a hole
+    private void heapifyDown(int index, long key, long payload) {
+        int half = size / 2;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            keys[index] = keys[child];
+            payloads[index] = payloads[child];
+            index = child;
+        }
+        keys[index] = key;
+        payloads[index] = payload;
+    }
+    
+    private void ensureCapacity(int needed) {
+        if (needed > keys.length) {
+            int newCapacity = Math.max(needed, keys.length + (keys.length >> 1) + 1);
+            keys = Arrays.copyOf(keys, newCapacity);
+            payloads = Arrays.copyOf(payloads, newCapacity);
+        }
+    }
+    
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+    }
+    
+    @Override
+    public String toString() {
+        if (size == 0) {
+            return "[]";
+        }
+        
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        
+        for (int i = 0; i < size; i++) {
+            sb.append(keys[i]).append("=").append(payloads[i]);
+            if (i < size - 1) {
+                sb.append(", ");
+            }
+        }
+        
+        sb.append("]");
+        return sb.toString();
+    }
+}
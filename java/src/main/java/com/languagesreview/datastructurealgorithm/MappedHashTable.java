@@ -0,0 +1,433 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent {@code long -> long} Hash Table stored in a memory-mapped file.
+ *
+ * The table file is an immutable open-addressing snapshot that is mapped, not loaded,
+ * so {@link #open(Path)} is usable immediately. Updates are appended to a change log
+ * (checksummed, replayed on open) and kept in a small in-memory overlay. Compaction
+ * writes a new snapshot beside the old one, forces it to disk, atomically renames it
+ * into place, forces the directory so the rename is durable, and only then truncates
+ * the log, so a crash at any point leaves either the old or the new snapshot plus a log
+ * that replays cleanly on top of it. (On Windows directories cannot be forced, so the
+ * rename's durability rests on the file system.)
+ *
+ * Table file layout: a header of magic, version, capacity and size, then
+ * {@code capacity} slots of key and value, then one state byte per slot.
+ */
+public class MappedHashTable implements AutoCloseable {
+    private static final int MAGIC = 0x50485431; // "PHT1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int SLOT_BYTES = 16;
+    private static final int PAGE_SHIFT = 20;
+    private static final int PAGE_SLOTS = 1 << PAGE_SHIFT;
+    private static final int MIN_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.75;
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 1 << 16;
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+    private static final int RECORD_BYTES = 1 + 8 + 8 + 4;
+
+    private static final String TABLE_FILE = "table.dat";
+    private static final String LOG_FILE = "table.log";
+
+    private final Path directory;
+    private final int compactionThreshold;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32 crc = new CRC32();
+
+    private FileChannel log;
+    private MappedByteBuffer[] slotPages;
+    private MappedByteBuffer[] statePages;
+    private long capacity;
+    private long size;
+    // Changes since the snapshot; a null value marks a removed key
+    private LongObjectHashTable<Long> overlay = new LongObjectHashTable<>();
+    private boolean closed;
+
+    private MappedHashTable(Path directory, int compactionThreshold) {
+        this.directory = directory;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    public static MappedHashTable open(Path directory) throws IOException {
+        return open(directory, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    public static MappedHashTable open(Path directory, int compactionThreshold) throws IOException {
+        if (compactionThreshold <= 0) {
+            throw new IllegalArgumentException("Compaction threshold must be positive");
+        }
+
+        Files.createDirectories(directory);
+        MappedHashTable table = new MappedHashTable(directory, compactionThreshold);
+
+        Path tableFile = directory.resolve(TABLE_FILE);
+        if (!Files.exists(tableFile)) {
+            writeSnapshot(tableFile, MIN_CAPACITY, new long[0], new long[0], 0);
+            forceDirectory(directory);
+        }
+        table.mapSnapshot(tableFile);
+        table.replayLog();
+        return table;
+    }
+
+    public void put(long key, long value) {
+        ensureOpen();
+        boolean existed = containsKey(key);
+        appendLog(OP_PUT, key, value);
+        overlay.put(key, value);
+        if (!existed) {
+            size++;
+        }
+        maybeCompact();
+    }
+
+    public long get(long key) {
+        ensureOpen();
+        if (overlay.containsKey(key)) {
+            Long value = overlay.get(key);
+            if (value == null) {
+                throw new NoSuchElementException("Key not found: " + key);
+            }
+            return value;
+        }
+
+        long slot = findSlot(key);
+        if (slot < 0) {
+            throw new NoSuchElementException("Key not found: " + key);
+        }
+        return valueAt(slot);
+    }
+
+    public long getOrDefault(long key, long defaultValue) {
+        return containsKey(key) ? get(key) : defaultValue;
+    }
+
+    public boolean containsKey(long key) {
+        ensureOpen();
+        if (overlay.containsKey(key)) {
+            return overlay.get(key) != null;
+        }
+        return findSlot(key) >= 0;
+    }
+
+    public boolean remove(long key) {
+        ensureOpen();
+        if (!containsKey(key)) {
+            return false;
+        }
+
+        appendLog(OP_REMOVE, key, 0);
+        overlay.put(key, null);
+        size--;
+        maybeCompact();
+        return true;
+    }
+
+    public long size() {
+        ensureOpen();
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Forces logged changes to the storage device.
+     */
+    public void flush() throws IOException {
+        ensureOpen();
+        log.force(false);
+    }
+
+    /**
+     * Folds the change log into a fresh snapshot file and truncates the log.
+     */
+    public void compact() throws IOException {
+        ensureOpen();
+
+        long[] keys = new long[(int) size];
+        long[] values = new long[(int) size];
+        int n = 0;
+
+        for (long slot = 0; slot < capacity; slot++) {
+            if (stateAt(slot) != 0 && !overlay.containsKey(keyAt(slot))) {
+                keys[n] = keyAt(slot);
+                values[n] = valueAt(slot);
+                n++;
+            }
+        }
+        for (long key : overlay.keys()) {
+            Long value = overlay.get(key);
+            if (value != null) {
+                keys[n] = key;
+                values[n] = value;
+                n++;
+            }
+        }
+
+        long newCapacity = MIN_CAPACITY;
+        while (newCapacity * LOAD_FACTOR <= n) {
+            newCapacity <<= 1;
+        }
+
+        Path tableFile = directory.resolve(TABLE_FILE);
+        Path tempFile = directory.resolve(TABLE_FILE + ".tmp");
+        writeSnapshot(tempFile, newCapacity, keys, values, n);
+        Files.move(tempFile, tableFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        // The rename must be durable before the log it replaces is truncated
+        forceDirectory(directory);
+
+        mapSnapshot(tableFile);
+        log.truncate(0);
+        log.force(true);
+        overlay = new LongObjectHashTable<>();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        log.force(false);
+        log.close();
+        slotPages = null;
+        statePages = null;
+    }
+
+    private void maybeCompact() {
+        if (overlay.size() >= compactionThreshold) {
+            try {
+                compact();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Forces a directory's entries (renames, new files) to disk. Windows cannot open a
+     * directory as a channel; there the rename is left to the file system's own ordering.
+     */
+    private static void forceDirectory(Path dir) throws IOException {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            if (!System.getProperty("os.name", "").startsWith("Windows")) {
+                throw e;
+            }
+        }
+    }
+
+    private static void writeSnapshot(Path file, long capacity, long[] keys, long[] values, int count)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putLong(capacity).putLong(count).putLong(0).flip();
+            channel.write(header, 0);
+
+            MappedByteBuffer[] slots = mapPages(channel, FileChannel.MapMode.READ_WRITE,
+                    HEADER_BYTES, capacity, SLOT_BYTES);
+            MappedByteBuffer[] states = mapPages(channel, FileChannel.MapMode.READ_WRITE,
+                    HEADER_BYTES + capacity * SLOT_BYTES, capacity, 1);
+
+            long mask = capacity - 1;
+            for (int i = 0; i < count; i++) {
+                long slot = hash(keys[i]) & mask;
+                while (states[page(slot)].get(index(slot)) != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[page(slot)].putLong(index(slot) * SLOT_BYTES, keys[i]);
+                slots[page(slot)].putLong(index(slot) * SLOT_BYTES + 8, values[i]);
+                states[page(slot)].put(index(slot), (byte) 1);
+            }
+
+            for (MappedByteBuffer page : slots) {
+                page.force();
+            }
+            for (MappedByteBuffer page : states) {
+                page.force();
+            }
+            channel.force(true);
+        }
+    }
+
+    private void mapSnapshot(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            header.flip();
+
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                throw new IOException("Not a hash table file: " + file);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported table version " + version + " in " + file);
+            }
+            long newCapacity = header.getLong();
+            long newSize = header.getLong();
+            if (Long.bitCount(newCapacity) != 1
+                    || channel.size() < HEADER_BYTES + newCapacity * (SLOT_BYTES + 1)) {
+                throw new IOException("Corrupt table header in " + file);
+            }
+
+            // Mappings stay valid after the channel is closed
+            slotPages = mapPages(channel, FileChannel.MapMode.READ_ONLY, HEADER_BYTES, newCapacity, SLOT_BYTES);
+            statePages = mapPages(channel, FileChannel.MapMode.READ_ONLY,
+                    HEADER_BYTES + newCapacity * SLOT_BYTES, newCapacity, 1);
+            capacity = newCapacity;
+            size = newSize;
+        }
+    }
+
+    private static MappedByteBuffer[] mapPages(FileChannel channel, FileChannel.MapMode mode,
+                                               long offset, long slots, int width) throws IOException {
+        long pageSlots = Math.min(slots, PAGE_SLOTS);
+        int pages = (int) ((slots + pageSlots - 1) / pageSlots);
+        MappedByteBuffer[] result = new MappedByteBuffer[pages];
+
+        for (int i = 0; i < pages; i++) {
+            result[i] = channel.map(mode, offset + i * pageSlots * width, pageSlots * width);
+            result[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return result;
+    }
+
+    private void replayLog() throws IOException {
+        log = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES * 4096).order(ByteOrder.LITTLE_ENDIAN);
+        long valid = 0;
+
+        replay:
+        while (true) {
+            buffer.clear();
+            while (buffer.hasRemaining()) {
+                if (log.read(buffer, valid + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+
+            while (buffer.remaining() >= RECORD_BYTES) {
+                byte op = buffer.get();
+                long key = buffer.getLong();
+                long value = buffer.getLong();
+                if (buffer.getInt() != checksum(op, key, value)) {
+                    break replay;
+                }
+
+                // Replay with the same size bookkeeping as a live update
+                boolean existed = containsKey(key);
+                if (op == OP_PUT) {
+                    overlay.put(key, value);
+                    if (!existed) {
+                        size++;
+                    }
+                } else if (existed) {
+                    overlay.put(key, null);
+                    size--;
+                }
+                valid += RECORD_BYTES;
+            }
+
+            if (buffer.limit() < buffer.capacity()) {
+                break;
+            }
+        }
+
+        // Drop a torn or corrupt tail left by a crash mid-append
+        log.truncate(valid);
+        log.position(valid);
+    }
+
+    private void appendLog(byte op, long key, long value) {
+        record.clear();
+        record.put(op).putLong(key).putLong(value).putInt(checksum(op, key, value)).flip();
+        try {
+            while (record.hasRemaining()) {
+                log.write(record);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int checksum(byte op, long key, long value) {
+        crc.reset();
+        crc.update(op);
+        for (int shift = 0; shift < 64; shift += 8) {
+            crc.update((int) (key >>> shift));
+        }
+        for (int shift = 0; shift < 64; shift += 8) {
+            crc.update((int) (value >>> shift));
+        }
+        return (int) crc.getValue();
+    }
+
+    private long findSlot(long key) {
+        long mask = capacity - 1;
+        long slot = hash(key) & mask;
+
+        while (stateAt(slot) != 0) {
+            if (keyAt(slot) == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    private long keyAt(long slot) {
+        return slotPages[page(slot)].getLong(index(slot) * SLOT_BYTES);
+    }
+
+    private long valueAt(long slot) {
+        return slotPages[page(slot)].getLong(index(slot) * SLOT_BYTES + 8);
+    }
+
+    private byte stateAt(long slot) {
+        return statePages[page(slot)].get(index(slot));
+    }
+
+    private static int page(long slot) {
+        return (int) (slot >>> PAGE_SHIFT);
+    }
+
+    private static int index(long slot) {
+        return (int) (slot & (PAGE_SLOTS - 1));
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Table is closed");
+        }
+    }
+
+    private static long hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+}
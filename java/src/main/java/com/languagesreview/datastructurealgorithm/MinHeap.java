@@ -39,6 +39,18 @@ public class MinHeap {
         return min;
     }
     
+    // Swaps the minimum for value with a single sift down; cheaper than extractMin + insert
+    public int replaceMin(int value) {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        
+        int min = heap[0];
+        heap[0] = value;
+        heapifyDown(0);
+        return min;
+    }
+    
     public int getMin() {
         if (size == 0) {
             throw new IllegalStateException("Heap is empty");
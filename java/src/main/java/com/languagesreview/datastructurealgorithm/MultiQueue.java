@@ -0,0 +1,182 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Relaxed {@link ConcurrentMinQueue}: c * P independently locked binary heaps. insert
+ * pushes onto a random heap; extractMin looks at the published minimum of two random
+ * heaps and pops from the better one. Threads use tryLock and move on to other heaps
+ * instead of waiting, so no single lock becomes a bottleneck; only after a run of busy
+ * heaps does a thread block on one.
+ *
+ * The key returned is not always the global minimum, but with high probability it is
+ * among the smallest O(c * P) keys. extractMin only returns null after finding every heap
+ * empty.
+ */
+public class MultiQueue<T> implements ConcurrentMinQueue<T> {
+    private static final int DEFAULT_QUEUES_PER_THREAD = 2;
+    private static final int INITIAL_SHARD_CAPACITY = 64;
+    
+    // One heap with its lock; the padding keeps neighbouring shards off the same cache line
+    private static final class Shard {
+        final ReentrantLock lock = new ReentrantLock();
+        long p0, p1, p2, p3, p4, p5, p6;
+        volatile long minKey = Long.MAX_VALUE; // published for lock-free peeking
+        volatile int size;
+        long[] keys = new long[INITIAL_SHARD_CAPACITY];
+        Object[] values = new Object[INITIAL_SHARD_CAPACITY];
+        long q0, q1, q2, q3, q4, q5, q6;
+        
+        void push(long key, Object value) {
+            int n = size;
+            if (n == keys.length) {
+                keys = Arrays.copyOf(keys, n * 2);
+                values = Arrays.copyOf(values, n * 2);
+            }
+            
+            int i = n;
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                keys[i] = keys[parent];
+                values[i] = values[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            values[i] = value;
+            size = n + 1;
+            minKey = keys[0];
+        }
+        
+        Object pop() {
+            int n = size - 1;
+            Object min = values[0];
+            long key = keys[n];
+            Object value = values[n];
+            values[n] = null;
+            
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= n) {
+                    break;
+                }
+                if (child + 1 < n && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (key <= keys[child]) {
+                    break;
+                }
+                keys[i] = keys[child];
+                values[i] = values[child];
+                i = child;
+            }
+            if (n > 0) {
+                keys[i] = key;
+                values[i] = value;
+            }
+            size = n;
+            minKey = n > 0 ? keys[0] : Long.MAX_VALUE;
+            return min;
+        }
+    }
+    
+    private final Shard[] shards;
+    
+    public MultiQueue() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUES_PER_THREAD);
+    }
+    
+    public MultiQueue(int threads, int queuesPerThread) {
+        if (threads <= 0 || queuesPerThread <= 0) {
+            throw new IllegalArgumentException("Thread count and queues per thread must be positive");
+        }
+        // At least two heaps so extractMin always has two to choose from
+        shards = new Shard[Math.max(2, threads * queuesPerThread)];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard();
+        }
+    }
+    
+    @Override
+    public void insert(long key, T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Shard shard = shards[random.nextInt(shards.length)];
+        for (int attempt = 1; !shard.lock.tryLock(); attempt++) {
+            shard = shards[random.nextInt(shards.length)];
+            if (attempt == shards.length) {
+                // Everything tried was busy, so wait rather than spin against preempted holders
+                shard.lock.lock();
+                break;
+            }
+        }
+        try {
+            shard.push(key, value);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public T extractMin() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int attempt = 1; ; attempt++) {
+            Shard a = shards[random.nextInt(shards.length)];
+            Shard b = shards[random.nextInt(shards.length)];
+            Shard best = b.minKey < a.minKey ? b : a;
+            
+            if (best.minKey == Long.MAX_VALUE && best.size == 0) {
+                // Both picks look empty; only give up once every heap is seen empty
+                if (isEmpty()) {
+                    return null;
+                }
+                continue;
+            }
+            // Fall back to waiting after a run of busy heaps, as insert does
+            if (attempt % shards.length == 0) {
+                best.lock.lock();
+            } else if (!best.lock.tryLock()) {
+                continue;
+            }
+            try {
+                if (best.size > 0) {
+                    return (T) best.pop();
+                }
+            } finally {
+                best.lock.unlock();
+            }
+        }
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        for (Shard shard : shards) {
+            if (shard.size > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public int size() {
+        int total = 0;
+        for (Shard shard : shards) {
+            total += shard.size;
+        }
+        return total;
+    }
+    
+    public int queueCount() {
+        return shards.length;
+    }
+}
@@ -0,0 +1,364 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+
+/**
+ * Off-heap Hash Table keyed by {@code long}, holding either fixed-width {@code long}
+ * values or length-prefixed {@code byte[]} payloads.
+ *
+ * Slots live in paged direct buffers addressed with open addressing (linear probing),
+ * and payloads are appended to a separate paged region, so no per-entry object ever
+ * reaches the Java heap. Call {@link #close()} once the table is no longer needed.
+ *
+ * The buffers come from {@link ByteBuffer#allocateDirect}, which has no explicit free
+ * on the Java 21 target (a confined {@code Arena} needs the preview FFM API), so their
+ * native memory goes back to the JVM only when the garbage collector reclaims them,
+ * after {@code close()}, {@code clear()} or a resize. Payload bytes freed by
+ * {@code put} or {@code remove} are reclaimed by copying the live payloads into fresh
+ * chunks once freed bytes outweigh live ones.
+ */
+public class OffHeapHashTable implements AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.75;
+
+    private static final int SLOT_BYTES = 16; // long key + long value
+    private static final int PAGE_SHIFT = 20; // 2^20 slots per page
+    private static final int PAGE_SLOTS = 1 << PAGE_SHIFT;
+    private static final int CHUNK_BYTES = 1 << 24;
+
+    private static final byte EMPTY = 0;
+    private static final byte LONG_VALUE = 1;
+    private static final byte PAYLOAD = 2;
+
+    private ByteBuffer[] slotPages;
+    private ByteBuffer[] statePages;
+    private long mask;
+    private long capacity;
+    private long size;
+    private long threshold;
+
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private long liveBytes;
+    private long garbageBytes;
+    private boolean closed;
+
+    public OffHeapHashTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public OffHeapHashTable(long initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+        long n = DEFAULT_CAPACITY;
+        while (n < (long) Math.ceil(initialCapacity / LOAD_FACTOR)) {
+            n <<= 1;
+        }
+        allocate(n);
+    }
+
+    public void put(long key, long value) {
+        long slot = findOrClaim(key);
+        releasePayload(slot);
+        setState(slot, LONG_VALUE);
+        slotPage(slot).putLong(slotOffset(slot) + 8, value);
+        afterInsert();
+    }
+
+    public void put(long key, byte[] payload) {
+        if (payload == null) {
+            throw new IllegalArgumentException("Payload cannot be null");
+        }
+
+        long slot = findOrClaim(key);
+        releasePayload(slot);
+        long address = appendPayload(payload);
+        setState(slot, PAYLOAD);
+        slotPage(slot).putLong(slotOffset(slot) + 8, address);
+        afterInsert();
+    }
+
+    public long getLong(long key) {
+        long slot = findSlot(key);
+        if (slot < 0 || state(slot) != LONG_VALUE) {
+            throw new NoSuchElementException("No long value for key: " + key);
+        }
+        return slotPage(slot).getLong(slotOffset(slot) + 8);
+    }
+
+    public long getLongOrDefault(long key, long defaultValue) {
+        long slot = findSlot(key);
+        if (slot < 0 || state(slot) != LONG_VALUE) {
+            return defaultValue;
+        }
+        return slotPage(slot).getLong(slotOffset(slot) + 8);
+    }
+
+    public byte[] getBytes(long key) {
+        long slot = findSlot(key);
+        if (slot < 0 || state(slot) != PAYLOAD) {
+            return null;
+        }
+        return readPayload(slotPage(slot).getLong(slotOffset(slot) + 8));
+    }
+
+    public boolean containsKey(long key) {
+        return findSlot(key) >= 0;
+    }
+
+    public boolean remove(long key) {
+        long slot = findSlot(key);
+        if (slot < 0) {
+            return false;
+        }
+
+        releasePayload(slot);
+        shiftBack(slot);
+        size--;
+        compactPayloadsIfWasteful();
+        return true;
+    }
+
+    public long size() {
+        ensureOpen();
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        ensureOpen();
+        allocate(DEFAULT_CAPACITY);
+        chunks.clear();
+        liveBytes = 0;
+        garbageBytes = 0;
+        size = 0;
+    }
+
+    /**
+     * Drops every buffer owned by the table; any further call on the table fails.
+     * The native memory is returned when the garbage collector reclaims the
+     * buffers, not by this call.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        slotPages = null;
+        statePages = null;
+        chunks.clear();
+    }
+
+    private long findSlot(long key) {
+        ensureOpen();
+        long slot = hash(key) & mask;
+
+        while (state(slot) != EMPTY) {
+            if (keyAt(slot) == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    // Returns the slot holding key, claiming an empty one (with the key written) if absent
+    private long findOrClaim(long key) {
+        ensureOpen();
+        long slot = hash(key) & mask;
+
+        while (state(slot) != EMPTY) {
+            if (keyAt(slot) == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        slotPage(slot).putLong(slotOffset(slot), key);
+        size++;
+        return slot;
+    }
+
+    private void afterInsert() {
+        if (size >= threshold) {
+            resize();
+        }
+        compactPayloadsIfWasteful();
+    }
+
+    private void compactPayloadsIfWasteful() {
+        if (liveBytes == 0) {
+            // Nothing live to copy; drop the chunks outright
+            if (!chunks.isEmpty()) {
+                chunks.clear();
+                garbageBytes = 0;
+            }
+        } else if (garbageBytes > liveBytes && garbageBytes > CHUNK_BYTES) {
+            compactPayloads();
+        }
+    }
+
+    private void releasePayload(long slot) {
+        if (state(slot) == PAYLOAD) {
+            long address = slotPage(slot).getLong(slotOffset(slot) + 8);
+            int length = chunk(address).getInt(chunkOffset(address));
+            liveBytes -= Integer.BYTES + length;
+            garbageBytes += Integer.BYTES + length;
+        }
+    }
+
+    private void shiftBack(long slot) {
+        long next = (slot + 1) & mask;
+
+        while (state(next) != EMPTY) {
+            long home = hash(keyAt(next)) & mask;
+            boolean reachable = slot <= next
+                    ? (slot < home && home <= next)
+                    : (slot < home || home <= next);
+            if (!reachable) {
+                copySlot(next, slot);
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        setState(slot, EMPTY);
+    }
+
+    private void copySlot(long from, long to) {
+        ByteBuffer source = slotPage(from);
+        ByteBuffer target = slotPage(to);
+        target.putLong(slotOffset(to), source.getLong(slotOffset(from)));
+        target.putLong(slotOffset(to) + 8, source.getLong(slotOffset(from) + 8));
+        setState(to, state(from));
+    }
+
+    private long appendPayload(byte[] payload) {
+        int needed = Integer.BYTES + payload.length;
+        ByteBuffer chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+
+        if (chunk == null || chunk.remaining() < needed) {
+            chunk = ByteBuffer.allocateDirect(Math.max(CHUNK_BYTES, needed)).order(ByteOrder.nativeOrder());
+            chunks.add(chunk);
+        }
+
+        int position = chunk.position();
+        chunk.putInt(payload.length);
+        chunk.put(payload);
+        liveBytes += needed;
+        return ((long) (chunks.size() - 1) << 32) | position;
+    }
+
+    private byte[] readPayload(long address) {
+        ByteBuffer chunk = chunk(address);
+        int offset = chunkOffset(address);
+        byte[] payload = new byte[chunk.getInt(offset)];
+        chunk.get(offset + Integer.BYTES, payload);
+        return payload;
+    }
+
+    // Rewrites live payloads into fresh chunks once overwritten ones dominate
+    private void compactPayloads() {
+        List<ByteBuffer> oldChunks = new ArrayList<>(chunks);
+        chunks.clear();
+        liveBytes = 0;
+        garbageBytes = 0;
+
+        for (long slot = 0; slot < capacity; slot++) {
+            if (state(slot) == PAYLOAD) {
+                ByteBuffer page = slotPage(slot);
+                long address = page.getLong(slotOffset(slot) + 8);
+                ByteBuffer chunk = oldChunks.get((int) (address >>> 32));
+                int offset = chunkOffset(address);
+                byte[] payload = new byte[chunk.getInt(offset)];
+                chunk.get(offset + Integer.BYTES, payload);
+                page.putLong(slotOffset(slot) + 8, appendPayload(payload));
+            }
+        }
+    }
+
+    private void resize() {
+        ByteBuffer[] oldSlots = slotPages;
+        ByteBuffer[] oldStates = statePages;
+        long oldCapacity = capacity;
+        allocate(capacity * 2);
+
+        for (long old = 0; old < oldCapacity; old++) {
+            int page = (int) (old >>> PAGE_SHIFT);
+            int index = (int) (old & (PAGE_SLOTS - 1));
+            byte oldState = oldStates[page].get(index);
+            if (oldState == EMPTY) {
+                continue;
+            }
+
+            long key = oldSlots[page].getLong(index * SLOT_BYTES);
+            long value = oldSlots[page].getLong(index * SLOT_BYTES + 8);
+            long slot = hash(key) & mask;
+            while (state(slot) != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            slotPage(slot).putLong(slotOffset(slot), key);
+            slotPage(slot).putLong(slotOffset(slot) + 8, value);
+            setState(slot, oldState);
+        }
+    }
+
+    private void allocate(long newCapacity) {
+        int pageSlots = (int) Math.min(newCapacity, PAGE_SLOTS);
+        int pages = (int) ((newCapacity + pageSlots - 1) / pageSlots);
+
+        slotPages = new ByteBuffer[pages];
+        statePages = new ByteBuffer[pages];
+        for (int i = 0; i < pages; i++) {
+            slotPages[i] = ByteBuffer.allocateDirect(pageSlots * SLOT_BYTES).order(ByteOrder.nativeOrder());
+            statePages[i] = ByteBuffer.allocateDirect(pageSlots);
+        }
+
+        capacity = newCapacity;
+        mask = newCapacity - 1;
+        threshold = (long) (newCapacity * LOAD_FACTOR);
+    }
+
+    private ByteBuffer slotPage(long slot) {
+        return slotPages[(int) (slot >>> PAGE_SHIFT)];
+    }
+
+    private static int slotOffset(long slot) {
+        return (int) (slot & (PAGE_SLOTS - 1)) * SLOT_BYTES;
+    }
+
+    private long keyAt(long slot) {
+        return slotPage(slot).getLong(slotOffset(slot));
+    }
+
+    private byte state(long slot) {
+        return statePages[(int) (slot >>> PAGE_SHIFT)].get((int) (slot & (PAGE_SLOTS - 1)));
+    }
+
+    private void setState(long slot, byte state) {
+        statePages[(int) (slot >>> PAGE_SHIFT)].put((int) (slot & (PAGE_SLOTS - 1)), state);
+    }
+
+    private ByteBuffer chunk(long address) {
+        return chunks.get((int) (address >>> 32));
+    }
+
+    private static int chunkOffset(long address) {
+        return (int) address;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Table is closed");
+        }
+    }
+
+    private static long hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+}
@@ -0,0 +1,198 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.util.*;
+
+/**
+ * Pairing Heap with long keys and a value per element.
+ *
+ * insert and meld are O(1), decreaseKey is O(1) plus amortized restructuring, and
+ * extractMin and delete are O(log n) amortized. insert returns a handle that stays valid
+ * until the element leaves the heap, which is what shortest-path code needs to lower a
+ * vertex's distance in place. Handles are not checked against the heap they came from.
+ */
+public class PairingHeap<T> {
+    public static final class Handle<T> {
+        private long key;
+        private final T value;
+        private Handle<T> child;
+        private Handle<T> sibling;
+        private Handle<T> prev; // left sibling, or parent for a first child
+        private boolean inHeap;
+        
+        private Handle(long key, T value) {
+            this.key = key;
+            this.value = value;
+        }
+        
+        public long key() {
+            return key;
+        }
+        
+        public T value() {
+            return value;
+        }
+        
+        public boolean inHeap() {
+            return inHeap;
+        }
+    }
+    
+    private Handle<T> root;
+    private int size;
+    
+    public Handle<T> insert(long key, T value) {
+        Handle<T> node = new Handle<>(key, value);
+        node.inHeap = true;
+        root = root == null ? node : link(root, node);
+        size++;
+        return node;
+    }
+    
+    public Handle<T> getMin() {
+        if (root == null) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        return root;
+    }
+    
+    // Removes the element with the smallest key and returns its (now detached) handle
+    public Handle<T> extractMin() {
+        Handle<T> min = getMin();
+        root = combineChildren(min);
+        if (root != null) {
+            root.prev = null;
+        }
+        detach(min);
+        size--;
+        return min;
+    }
+    
+    public void decreaseKey(Handle<T> node, long newKey) {
+        checkInHeap(node);
+        if (newKey > node.key) {
+            throw new IllegalArgumentException("New key is greater than current key");
+        }
+        
+        node.key = newKey;
+        if (node != root) {
+            cut(node);
+            root = link(root, node);
+        }
+    }
+    
+    public void delete(Handle<T> node) {
+        checkInHeap(node);
+        if (node == root) {
+            extractMin();
+            return;
+        }
+        
+        cut(node);
+        Handle<T> rest = combineChildren(node);
+        if (rest != null) {
+            root = link(root, rest);
+        }
+        detach(node);
+        size--;
+    }
+    
+    // Moves every element of other into this heap in O(1); other is left empty
+    public void meld(PairingHeap<T> other) {
+        if (other == this || other.root == null) {
+            return;
+        }
+        
+        root = root == null ? other.root : link(root, other.root);
+        size += other.size;
+        other.root = null;
+        other.size = 0;
+    }
+    
+    public boolean isEmpty() {
+        return root == null;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    // Makes the larger-keyed root the first child of the other and returns the winner
+    private Handle<T> link(Handle<T> a, Handle<T> b) {
+        if (b.key < a.key) {
+            Handle<T> t = a;
+            a = b;
+            b = t;
+        }
+        
+        b.prev = a;
+        b.sibling = a.child;
+        if (a.child != null) {
+            a.child.prev = b;
+        }
+        a.child = b;
+        a.sibling = null;
+        a.prev = null;
+        return a;
+    }
+    
+    // Unlinks node (with its subtree) from its parent's child list
+    private void cut(Handle<T> node) {
+        if (node.prev.child == node) {
+            node.prev.child = node.sibling;
+        } else {
+            node.prev.sibling = node.sibling;
+        }
+        if (node.sibling != null) {
+            node.sibling.prev = node.prev;
+        }
+        node.sibling = null;
+        node.prev = null;
+    }
+    
+    /**
+     * Standard two-pass combine of a node's children: link them pairwise left to right,
+     * then fold the pairs right to left. The first pass threads the pair winners into a
+     * stack through their sibling links, so no extra storage is needed.
+     */
+    private Handle<T> combineChildren(Handle<T> node) {
+        Handle<T> first = node.child;
+        node.child = null;
+        if (first == null) {
+            return null;
+        }
+        
+        Handle<T> pairs = null;
+        while (first != null) {
+            Handle<T> second = first.sibling;
+            Handle<T> next = second == null ? null : second.sibling;
+            Handle<T> winner = second == null ? first : link(first, second);
+            winner.sibling = pairs;
+            pairs = winner;
+            first = next;
+        }
+        
+        Handle<T> result = pairs;
+        pairs = pairs.sibling;
+        result.sibling = null;
+        while (pairs != null) {
+            Handle<T> next = pairs.sibling;
+            result = link(result, pairs);
+            pairs = next;
+        }
+        result.prev = null;
+        return result;
+    }
+    
+    private static void detach(Handle<?> node) {
+        node.inHeap = false;
+        node.child = null;
+        node.sibling = null;
+        node.prev = null;
+    }
+    
+    private static void checkInHeap(Handle<?> node) {
+        if (node == null || !node.inHeap) {
+            throw new NoSuchElementException("Handle is not in a heap");
+        }
+    }
+}
@@ -0,0 +1,522 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Hash Table backed by a hash array mapped trie (HAMT) with structural sharing.
+ *
+ * Every update copies only the nodes on the path to the changed entry and then publishes
+ * the new root, so {@link #snapshot()} is O(1) and readers on any thread see a consistent
+ * version without locking. Writers are serialized on the table. For bulk loading,
+ * {@link Builder} edits the nodes it owns in place and freezes them on {@link Builder#build()}.
+ */
+public class PersistentHashTable<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final Object NOT_FOUND = new Object();
+
+    private volatile Version current;
+
+    public PersistentHashTable() {
+        this(Version.EMPTY);
+    }
+
+    private PersistentHashTable(Version version) {
+        this.current = version;
+    }
+
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<>(Version.EMPTY);
+    }
+
+    public synchronized void put(K key, V value) {
+        Version version = current;
+        Change change = new Change();
+        Node root = version.root.put(null, 0, hash(key), key, value, change);
+        if (root != version.root) {
+            current = new Version(root, version.size + (change.added ? 1 : 0));
+        }
+    }
+
+    public synchronized void putAll(Map<? extends K, ? extends V> entries) {
+        Builder<K, V> builder = toBuilder();
+        for (Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+            builder.put(entry.getKey(), entry.getValue());
+        }
+        current = builder.freeze();
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        Object value = current.root.find(0, hash(key), key);
+        return value == NOT_FOUND ? null : (V) value;
+    }
+
+    public boolean containsKey(K key) {
+        return current.root.find(0, hash(key), key) != NOT_FOUND;
+    }
+
+    @SuppressWarnings("unchecked")
+    public synchronized V remove(K key) {
+        Version version = current;
+        Change change = new Change();
+        Node root = version.root.remove(null, 0, hash(key), key, change);
+        if (!change.removed) {
+            return null;
+        }
+
+        current = new Version(root == null ? BitmapNode.EMPTY : root, version.size - 1);
+        return (V) change.oldValue;
+    }
+
+    public int size() {
+        return current.size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public synchronized void clear() {
+        current = Version.EMPTY;
+    }
+
+    /**
+     * Returns an independent table holding the current contents. The two tables share
+     * every node until one of them is updated.
+     */
+    public PersistentHashTable<K, V> snapshot() {
+        return new PersistentHashTable<>(current);
+    }
+
+    // Starts a builder from the current contents; the table itself is not affected
+    public Builder<K, V> toBuilder() {
+        return new Builder<>(current);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        current.root.forEach((BiConsumer<Object, Object>) action);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Set<K> keySet() {
+        Set<K> keys = new HashSet<>();
+        current.root.forEach((key, value) -> keys.add((K) key));
+        return keys;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Collection<V> values() {
+        List<V> values = new ArrayList<>();
+        current.root.forEach((key, value) -> values.add((V) value));
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        current.root.forEach((key, value) -> {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(key).append("=").append(value);
+        });
+        sb.append("}");
+        return sb.toString();
+    }
+
+    private static int hash(Object key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /**
+     * Transient view of a trie for bulk loading. Nodes created by this builder are
+     * updated in place; nodes shared with a table are copied on first write, exactly
+     * as a persistent update would. A builder is single-threaded and single-use.
+     */
+    public static final class Builder<K, V> {
+        private Object edit = new Object();
+        private Node root;
+        private int size;
+        private final Change change = new Change();
+
+        private Builder(Version version) {
+            this.root = version.root;
+            this.size = version.size;
+        }
+
+        public Builder<K, V> put(K key, V value) {
+            ensureEditable();
+            change.reset();
+            root = root.put(edit, 0, hash(key), key, value, change);
+            if (change.added) {
+                size++;
+            }
+            return this;
+        }
+
+        public Builder<K, V> remove(K key) {
+            ensureEditable();
+            change.reset();
+            Node newRoot = root.remove(edit, 0, hash(key), key, change);
+            root = newRoot == null ? BitmapNode.EMPTY : newRoot;
+            if (change.removed) {
+                size--;
+            }
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public PersistentHashTable<K, V> build() {
+            return new PersistentHashTable<>(freeze());
+        }
+
+        private Version freeze() {
+            ensureEditable();
+            // Dropping the token makes every node this builder owns immutable from now on
+            edit = null;
+            return new Version(root, size);
+        }
+
+        private void ensureEditable() {
+            if (edit == null) {
+                throw new IllegalStateException("Builder has already been built");
+            }
+        }
+    }
+
+    private static final class Version {
+        static final Version EMPTY = new Version(BitmapNode.EMPTY, 0);
+
+        final Node root;
+        final int size;
+
+        Version(Node root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+    }
+
+    // Outcome of a single put or remove
+    private static final class Change {
+        boolean added;
+        boolean removed;
+        Object oldValue;
+
+        void reset() {
+            added = false;
+            removed = false;
+            oldValue = null;
+        }
+    }
+
+    /**
+     * Trie node. The {@code edit} token names the builder allowed to mutate the node in
+     * place; persistent updates pass a null token and therefore always copy.
+     */
+    private abstract static class Node {
+        final Object edit;
+
+        Node(Object edit) {
+            this.edit = edit;
+        }
+
+        boolean editableBy(Object token) {
+            return token != null && edit == token;
+        }
+
+        abstract Object find(int shift, int hash, Object key);
+
+        // Returns this node when nothing changed
+        abstract Node put(Object token, int shift, int hash, Object key, Object value, Change change);
+
+        // Returns null once the node holds nothing
+        abstract Node remove(Object token, int shift, int hash, Object key, Change change);
+
+        abstract void forEach(BiConsumer<Object, Object> action);
+    }
+
+    /**
+     * Up to 32 children selected by five hash bits. Each present child takes two array
+     * slots: key and value for an entry, or null and the sub-node for a deeper level.
+     */
+    private static final class BitmapNode extends Node {
+        static final BitmapNode EMPTY = new BitmapNode(null, 0, new Object[0]);
+
+        int bitmap;
+        Object[] array;
+
+        BitmapNode(Object edit, int bitmap, Object[] array) {
+            super(edit);
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return NOT_FOUND;
+            }
+
+            int i = 2 * index(bit);
+            Object k = array[i];
+            if (k == null) {
+                return ((Node) array[i + 1]).find(shift + BITS, hash, key);
+            }
+            return key.equals(k) ? array[i + 1] : NOT_FOUND;
+        }
+
+        @Override
+        Node put(Object token, int shift, int hash, Object key, Object value, Change change) {
+            int bit = bit(hash, shift);
+            int i = 2 * index(bit);
+
+            if ((bitmap & bit) != 0) {
+                Object k = array[i];
+                Object v = array[i + 1];
+
+                if (k == null) {
+                    Node child = ((Node) v).put(token, shift + BITS, hash, key, value, change);
+                    return child == v ? this : set(token, i + 1, child);
+                }
+
+                if (key.equals(k)) {
+                    change.oldValue = v;
+                    return v == value ? this : set(token, i + 1, value);
+                }
+
+                // Two keys share this slot: push both one level down
+                change.added = true;
+                Node child = pair(token, shift + BITS, hash(k), k, v, hash, key, value);
+                BitmapNode node = editable(token);
+                node.array[i] = null;
+                node.array[i + 1] = child;
+                return node;
+            }
+
+            change.added = true;
+            Object[] newArray = new Object[array.length + 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            newArray[i] = key;
+            newArray[i + 1] = value;
+            System.arraycopy(array, i, newArray, i + 2, array.length - i);
+
+            if (editableBy(token)) {
+                bitmap |= bit;
+                array = newArray;
+                return this;
+            }
+            return new BitmapNode(token, bitmap | bit, newArray);
+        }
+
+        @Override
+        Node remove(Object token, int shift, int hash, Object key, Change change) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+
+            int i = 2 * index(bit);
+            Object k = array[i];
+            Object v = array[i + 1];
+
+            if (k == null) {
+                Node child = ((Node) v).remove(token, shift + BITS, hash, key, change);
+                if (child == v) {
+                    return this;
+                }
+                if (child == null) {
+                    return without(token, bit, i);
+                }
+
+                // A child left with one entry is pulled back up to keep the trie shallow
+                Object[] single = singleEntry(child);
+                if (single != null) {
+                    BitmapNode node = editable(token);
+                    node.array[i] = single[0];
+                    node.array[i + 1] = single[1];
+                    return node;
+                }
+                return set(token, i + 1, child);
+            }
+
+            if (!key.equals(k)) {
+                return this;
+            }
+
+            change.removed = true;
+            change.oldValue = v;
+            return without(token, bit, i);
+        }
+
+        private Node without(Object token, int bit, int i) {
+            if (bitmap == bit) {
+                return null;
+            }
+
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, array.length - i - 2);
+
+            if (editableBy(token)) {
+                bitmap ^= bit;
+                array = newArray;
+                return this;
+            }
+            return new BitmapNode(token, bitmap ^ bit, newArray);
+        }
+
+        private BitmapNode set(Object token, int i, Object value) {
+            BitmapNode node = editable(token);
+            node.array[i] = value;
+            return node;
+        }
+
+        private BitmapNode editable(Object token) {
+            return editableBy(token) ? this : new BitmapNode(token, bitmap, array.clone());
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] == null) {
+                    ((Node) array[i + 1]).forEach(action);
+                } else {
+                    action.accept(array[i], array[i + 1]);
+                }
+            }
+        }
+    }
+
+    // Keys whose full 32-bit hashes are equal, kept as a flat key/value array
+    private static final class CollisionNode extends Node {
+        final int hash;
+        Object[] array;
+
+        CollisionNode(Object edit, int hash, Object[] array) {
+            super(edit);
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            if (hash != this.hash) {
+                return NOT_FOUND;
+            }
+            int i = indexOf(key);
+            return i < 0 ? NOT_FOUND : array[i + 1];
+        }
+
+        @Override
+        Node put(Object token, int shift, int hash, Object key, Object value, Change change) {
+            if (hash != this.hash) {
+                // Different hash reached this slot: nest the collisions under a bitmap node
+                BitmapNode parent = new BitmapNode(token, bit(this.hash, shift), new Object[] {null, this});
+                return parent.put(token, shift, hash, key, value, change);
+            }
+
+            int i = indexOf(key);
+            if (i >= 0) {
+                change.oldValue = array[i + 1];
+                if (array[i + 1] == value) {
+                    return this;
+                }
+                CollisionNode node = editableBy(token) ? this : new CollisionNode(token, hash, array.clone());
+                node.array[i + 1] = value;
+                return node;
+            }
+
+            change.added = true;
+            Object[] newArray = Arrays.copyOf(array, array.length + 2);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            if (editableBy(token)) {
+                array = newArray;
+                return this;
+            }
+            return new CollisionNode(token, hash, newArray);
+        }
+
+        @Override
+        Node remove(Object token, int shift, int hash, Object key, Change change) {
+            int i = hash == this.hash ? indexOf(key) : -1;
+            if (i < 0) {
+                return this;
+            }
+
+            change.removed = true;
+            change.oldValue = array[i + 1];
+            if (array.length == 2) {
+                return null;
+            }
+
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, array.length - i - 2);
+            if (editableBy(token)) {
+                array = newArray;
+                return this;
+            }
+            return new CollisionNode(token, hash, newArray);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                action.accept(array[i], array[i + 1]);
+            }
+        }
+    }
+
+    private static Node pair(Object token, int shift, int hash1, Object key1, Object value1,
+                             int hash2, Object key2, Object value2) {
+        if (hash1 == hash2) {
+            return new CollisionNode(token, hash1, new Object[] {key1, value1, key2, value2});
+        }
+
+        // Hashes differ in some five-bit chunk, so this recursion ends by shift 30
+        Change ignored = new Change();
+        return BitmapNode.EMPTY
+                .put(token, shift, hash1, key1, value1, ignored)
+                .put(token, shift, hash2, key2, value2, ignored);
+    }
+
+    // Returns {key, value} if the node holds exactly one inline entry, otherwise null
+    private static Object[] singleEntry(Node node) {
+        if (node instanceof BitmapNode bitmapNode) {
+            Object[] array = bitmapNode.array;
+            return array.length == 2 && array[0] != null ? array : null;
+        }
+        Object[] array = ((CollisionNode) node).array;
+        return array.length == 2 ? array : null;
+    }
+}
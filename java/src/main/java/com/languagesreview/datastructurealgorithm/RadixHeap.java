@@ -0,0 +1,127 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.util.*;
+
+/**
+ * Radix Heap for monotone non-negative long keys: every inserted key must be at least
+ * the last extracted one, as in Dijkstra's algorithm with non-negative weights.
+ *
+ * Bucket i holds keys whose highest bit differing from the last extracted key is bit
+ * i - 1 (bucket 0 holds keys equal to it). Extracting from an empty bucket 0 finds the
+ * first non-empty bucket, makes its smallest key the new last key and redistributes
+ * the bucket into strictly lower buckets, so each element moves O(log C) times over its
+ * life. Keys and long payloads live in parallel primitive arrays per bucket.
+ */
+public class RadixHeap {
+    private static final int BUCKETS = Long.SIZE + 1;
+    private static final int INITIAL_BUCKET_CAPACITY = 4;
+    
+    private final long[][] keys = new long[BUCKETS][];
+    private final long[][] payloads = new long[BUCKETS][];
+    private final int[] counts = new int[BUCKETS];
+    private long last;
+    private int size;
+    
+    public RadixHeap() {
+        for (int i = 0; i < BUCKETS; i++) {
+            keys[i] = new long[INITIAL_BUCKET_CAPACITY];
+            payloads[i] = new long[INITIAL_BUCKET_CAPACITY];
+        }
+    }
+    
+    public void insert(long key) {
+        insert(key, 0);
+    }
+    
+    public void insert(long key, long payload) {
+        if (key < last) {
+            throw new IllegalArgumentException("Key " + key + " is smaller than the last extracted key " + last);
+        }
+        push(bucketOf(key), key, payload);
+        size++;
+    }
+    
+    public long getMinKey() {
+        normalize();
+        return keys[0][counts[0] - 1];
+    }
+    
+    public long getMinPayload() {
+        normalize();
+        return payloads[0][counts[0] - 1];
+    }
+    
+    // Removes the smallest key and returns it; read getMinPayload() first if needed
+    public long extractMin() {
+        normalize();
+        counts[0]--;
+        size--;
+        return last;
+    }
+    
+    // Removes the smallest key and returns its payload
+    public long extractMinPayload() {
+        normalize();
+        counts[0]--;
+        size--;
+        return payloads[0][counts[0]];
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    // The last extracted key; no key below it can be inserted
+    public long lastKey() {
+        return last;
+    }
+    
+    // Ensures bucket 0 holds the current minimum
+    private void normalize() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        if (counts[0] > 0) {
+            return;
+        }
+        
+        int bucket = 1;
+        while (counts[bucket] == 0) {
+            bucket++;
+        }
+        
+        long[] bucketKeys = keys[bucket];
+        long[] bucketPayloads = payloads[bucket];
+        int count = counts[bucket];
+        long min = bucketKeys[0];
+        for (int i = 1; i < count; i++) {
+            min = Math.min(min, bucketKeys[i]);
+        }
+        
+        // Every key in the bucket now differs from the new last key below bit bucket - 1
+        last = min;
+        counts[bucket] = 0;
+        for (int i = 0; i < count; i++) {
+            push(bucketOf(bucketKeys[i]), bucketKeys[i], bucketPayloads[i]);
+        }
+    }
+    
+    private int bucketOf(long key) {
+        return key == last ? 0 : Long.SIZE - Long.numberOfLeadingZeros(key ^ last);
+    }
+    
+    private void push(int bucket, long key, long payload) {
+        int count = counts[bucket];
+        if (count == keys[bucket].length) {
+            keys[bucket] = Arrays.copyOf(keys[bucket], count * 2);
+            payloads[bucket] = Arrays.copyOf(payloads[bucket], count * 2);
+        }
+        keys[bucket][count] = key;
+        payloads[bucket][count] = payload;
+        counts[bucket] = count + 1;
+    }
+}
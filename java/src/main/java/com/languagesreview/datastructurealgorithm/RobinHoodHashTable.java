@@ -0,0 +1,259 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.util.*;
+
+/**
+ * Open-addressing Hash Table using Robin Hood probing and backward-shift deletion.
+ * Keys, values and cached hashes live in parallel arrays, so there is no per-entry
+ * node allocation and a probe sequence walks contiguous memory.
+ */
+public class RobinHoodHashTable<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final double LOAD_FACTOR = 0.85;
+
+    // hashes[i] == 0 marks an empty slot; stored hashes are never 0
+    private int[] hashes;
+    private Object[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int threshold;
+
+    public RobinHoodHashTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public RobinHoodHashTable(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+        allocate(tableSizeFor((int) Math.ceil(initialCapacity / LOAD_FACTOR)));
+    }
+
+    public void put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+
+        int hash = hash(key);
+        int index = hash & mask;
+        int distance = 0;
+
+        // Look for an existing key first; Robin Hood ordering lets us stop early
+        while (hashes[index] != 0) {
+            if (distance > probeDistance(index)) {
+                break;
+            }
+            if (hashes[index] == hash && keys[index].equals(key)) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+            distance++;
+        }
+
+        if (size >= threshold) {
+            resize();
+        }
+        insert(hash, key, value);
+        size++;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        int index = findIndex(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        int index = findIndex(key);
+        if (index < 0) {
+            return null;
+        }
+
+        V oldValue = (V) values[index];
+
+        // Backward-shift the following cluster instead of leaving a tombstone
+        int next = (index + 1) & mask;
+        while (hashes[next] != 0 && probeDistance(next) > 0) {
+            hashes[index] = hashes[next];
+            keys[index] = keys[next];
+            values[index] = values[next];
+            index = next;
+            next = (next + 1) & mask;
+        }
+        hashes[index] = 0;
+        keys[index] = null;
+        values[index] = null;
+        size--;
+
+        return oldValue;
+    }
+
+    public boolean containsKey(K key) {
+        return findIndex(key) >= 0;
+    }
+
+    public boolean containsValue(V value) {
+        for (int i = 0; i < hashes.length; i++) {
+            if (hashes[i] != 0 && Objects.equals(values[i], value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(hashes, 0);
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Set<K> keySet() {
+        Set<K> result = new HashSet<>();
+        for (int i = 0; i < hashes.length; i++) {
+            if (hashes[i] != 0) {
+                result.add((K) keys[i]);
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Collection<V> values() {
+        List<V> result = new ArrayList<>(size);
+        for (int i = 0; i < hashes.length; i++) {
+            if (hashes[i] != 0) {
+                result.add((V) values[i]);
+            }
+        }
+        return result;
+    }
+
+    private int findIndex(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+
+        int hash = hash(key);
+        int index = hash & mask;
+        int distance = 0;
+
+        while (hashes[index] != 0 && distance <= probeDistance(index)) {
+            if (hashes[index] == hash && keys[index].equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+            distance++;
+        }
+
+        return -1;
+    }
+
+    // Places an entry known to be absent, displacing richer entries along the way
+    private void insert(int hash, Object key, Object value) {
+        int index = hash & mask;
+        int distance = 0;
+
+        while (hashes[index] != 0) {
+            int existingDistance = probeDistance(index);
+            if (existingDistance < distance) {
+                int tmpHash = hashes[index];
+                Object tmpKey = keys[index];
+                Object tmpValue = values[index];
+                hashes[index] = hash;
+                keys[index] = key;
+                values[index] = value;
+                hash = tmpHash;
+                key = tmpKey;
+                value = tmpValue;
+                distance = existingDistance;
+            }
+            index = (index + 1) & mask;
+            distance++;
+        }
+
+        hashes[index] = hash;
+        keys[index] = key;
+        values[index] = value;
+    }
+
+    private int probeDistance(int index) {
+        return (index - (hashes[index] & mask)) & mask;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return h == 0 ? 1 : h;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int n = DEFAULT_CAPACITY;
+        while (n < capacity && n < MAXIMUM_CAPACITY) {
+            n <<= 1;
+        }
+        return n;
+    }
+
+    private void allocate(int capacity) {
+        hashes = new int[capacity];
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void resize() {
+        if (hashes.length == MAXIMUM_CAPACITY) {
+            // Cannot double any further; keep one slot free so probe loops terminate
+            if (size >= MAXIMUM_CAPACITY - 1) {
+                throw new IllegalStateException("Hash table is full");
+            }
+            threshold = MAXIMUM_CAPACITY - 1;
+            return;
+        }
+        int[] oldHashes = hashes;
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(oldHashes.length * 2);
+
+        for (int i = 0; i < oldHashes.length; i++) {
+            if (oldHashes[i] != 0) {
+                insert(oldHashes[i], oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+
+        boolean first = true;
+        for (int i = 0; i < hashes.length; i++) {
+            if (hashes[i] != 0) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                sb.append(keys[i]).append("=").append(values[i]);
+                first = false;
+            }
+        }
+
+        sb.append("}");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,46 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Portable {@link GroupMatcher} comparing eight control bytes at a time inside a long
+ * (SIMD within a register). Used whenever the Vector API is not available.
+ */
+final class ScalarGroupMatcher implements GroupMatcher {
+    private static final VarHandle LONGS =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long LSBS = 0x0101010101010101L;
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long MSBS = 0x8080808080808080L;
+
+    @Override
+    public int match(byte[] ctrl, int offset, byte tag) {
+        long pattern = (tag & 0xFFL) * LSBS;
+        return compress(zeroBytes((long) LONGS.get(ctrl, offset) ^ pattern))
+                | compress(zeroBytes((long) LONGS.get(ctrl, offset + 8) ^ pattern)) << 8;
+    }
+
+    @Override
+    public int matchEmpty(byte[] ctrl, int offset) {
+        return match(ctrl, offset, SwissHashTable.EMPTY);
+    }
+
+    @Override
+    public int matchEmptyOrDeleted(byte[] ctrl, int offset) {
+        // Only EMPTY and DELETED have the high bit set
+        return compress((long) LONGS.get(ctrl, offset) & MSBS)
+                | compress((long) LONGS.get(ctrl, offset + 8) & MSBS) << 8;
+    }
+
+    // Sets the high bit of exactly the bytes of x that are zero
+    private static long zeroBytes(long x) {
+        return ~(((x & LOW_BITS) + LOW_BITS) | x) & MSBS;
+    }
+
+    // Gathers the high bit of each byte into the low eight bits
+    private static int compress(long highBits) {
+        return (int) (((highBits >>> 7) * 0x0102040810204080L) >>> 56);
+    }
+}
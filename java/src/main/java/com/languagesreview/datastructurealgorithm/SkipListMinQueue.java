@@ -0,0 +1,212 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free exact {@link ConcurrentMinQueue} built on a skip list ordered by key, with
+ * equal keys kept in insertion order.
+ *
+ * extractMin walks the bottom level from the head and claims the first node whose
+ * {@code taken} flag it can flip with a CAS, then unlinks it level by level. Unlinking
+ * follows the usual lock-free skip list scheme: a node's next pointer at a level is
+ * marked by swapping in a {@link Marker} that wraps the successor, after which no
+ * insert can link behind it, and any traversal that meets the marked node snips it
+ * out with a CAS on its predecessor.
+ */
+public class SkipListMinQueue<T> implements ConcurrentMinQueue<T> {
+    private static final int MAX_LEVEL = 31;
+    private static final VarHandle NEXT = MethodHandles.arrayElementVarHandle(Node[].class);
+    private static final VarHandle TAKEN;
+    
+    static {
+        try {
+            TAKEN = MethodHandles.lookup().findVarHandle(Node.class, "taken", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
+    private static class Node<T> {
+        final long key;
+        final long sequence; // tie-breaker that keeps every node distinct
+        final T value;
+        final Node<T>[] next;
+        volatile boolean taken;
+        
+        @SuppressWarnings("unchecked")
+        Node(long key, long sequence, T value, int levels) {
+            this.key = key;
+            this.sequence = sequence;
+            this.value = value;
+            this.next = new Node[levels];
+        }
+    }
+    
+    // Stands in a marked node's next slot and points at the real successor
+    private static final class Marker<T> extends Node<T> {
+        final Node<T> successor;
+        
+        Marker(Node<T> successor) {
+            super(0, 0, null, 0);
+            this.successor = successor;
+        }
+    }
+    
+    private final Node<T> head = new Node<>(Long.MIN_VALUE, Long.MIN_VALUE, null, MAX_LEVEL + 1);
+    private final Node<T> tail = new Node<>(Long.MAX_VALUE, Long.MAX_VALUE, null, 0);
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder size = new LongAdder();
+    
+    public SkipListMinQueue() {
+        for (int level = 0; level <= MAX_LEVEL; level++) {
+            head.next[level] = tail;
+        }
+    }
+    
+    @Override
+    public void insert(long key, T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        
+        int top = randomLevel();
+        Node<T> node = new Node<>(key, sequence.getAndIncrement(), value, top + 1);
+        @SuppressWarnings("unchecked")
+        Node<T>[] preds = new Node[MAX_LEVEL + 1];
+        @SuppressWarnings("unchecked")
+        Node<T>[] succs = new Node[MAX_LEVEL + 1];
+        
+        // The node is in the queue once it is linked at the bottom level
+        do {
+            find(node, preds, succs);
+            for (int level = 0; level <= top; level++) {
+                node.next[level] = succs[level];
+            }
+        } while (!NEXT.compareAndSet(preds[0].next, 0, succs[0], node));
+        size.increment();
+        
+        // The upper levels are only shortcuts, so link them on a best-effort basis
+        for (int level = 1; level <= top; level++) {
+            while (true) {
+                Node<T> current = (Node<T>) NEXT.getVolatile(node.next, level);
+                if (current instanceof Marker) {
+                    return; // already being removed
+                }
+                Node<T> succ = succs[level];
+                if (current != succ && !NEXT.compareAndSet(node.next, level, current, succ)) {
+                    continue;
+                }
+                if (NEXT.compareAndSet(preds[level].next, level, succ, node)) {
+                    break;
+                }
+                find(node, preds, succs);
+            }
+        }
+    }
+    
+    @Override
+    public T extractMin() {
+        for (Node<T> node = successor(head, 0); node != tail; node = successor(node, 0)) {
+            if (!node.taken && TAKEN.compareAndSet(node, false, true)) {
+                size.decrement();
+                unlink(node);
+                return node.value;
+            }
+        }
+        return null;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        for (Node<T> node = successor(head, 0); node != tail; node = successor(node, 0)) {
+            if (!node.taken) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public int size() {
+        return (int) Math.max(0, size.sum());
+    }
+    
+    // Marks every level of a claimed node from the top down, then lets find() snip it out
+    private void unlink(Node<T> node) {
+        for (int level = node.next.length - 1; level >= 0; level--) {
+            while (true) {
+                Node<T> current = (Node<T>) NEXT.getVolatile(node.next, level);
+                if (current instanceof Marker
+                        || NEXT.compareAndSet(node.next, level, current, new Marker<>(current))) {
+                    break;
+                }
+            }
+        }
+        
+        @SuppressWarnings("unchecked")
+        Node<T>[] preds = new Node[MAX_LEVEL + 1];
+        @SuppressWarnings("unchecked")
+        Node<T>[] succs = new Node[MAX_LEVEL + 1];
+        find(node, preds, succs);
+    }
+    
+    /**
+     * Fills preds and succs with the nodes on either side of target's position at every
+     * level, unlinking any marked node met on the way. Restarts from the head when a
+     * predecessor turns out to be marked itself.
+     */
+    @SuppressWarnings("unchecked")
+    private void find(Node<T> target, Node<T>[] preds, Node<T>[] succs) {
+        retry:
+        while (true) {
+            Node<T> pred = head;
+            for (int level = MAX_LEVEL; level >= 0; level--) {
+                Node<T> current = (Node<T>) NEXT.getVolatile(pred.next, level);
+                while (true) {
+                    if (current instanceof Marker) {
+                        continue retry;
+                    }
+                    if (current == tail) {
+                        break;
+                    }
+                    Node<T> succ = (Node<T>) NEXT.getVolatile(current.next, level);
+                    if (succ instanceof Marker) {
+                        Node<T> skip = ((Marker<T>) succ).successor;
+                        if (!NEXT.compareAndSet(pred.next, level, current, skip)) {
+                            continue retry;
+                        }
+                        current = skip;
+                    } else if (before(current, target)) {
+                        pred = current;
+                        current = succ;
+                    } else {
+                        break;
+                    }
+                }
+                preds[level] = pred;
+                succs[level] = current;
+            }
+            return;
+        }
+    }
+    
+    // Bottom-level successor, looking through a marker
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T> successor(Node<T> node, int level) {
+        Node<T> next = (Node<T>) NEXT.getVolatile(node.next, level);
+        return next instanceof Marker ? ((Marker<T>) next).successor : next;
+    }
+    
+    private static boolean before(Node<?> a, Node<?> b) {
+        return a.key < b.key || (a.key == b.key && a.sequence < b.sequence);
+    }
+    
+    // Geometric level with p = 1/2
+    private static int randomLevel() {
+        return Math.min(MAX_LEVEL, Integer.numberOfTrailingZeros(ThreadLocalRandom.current().nextInt() | (1 << MAX_LEVEL)));
+    }
+}
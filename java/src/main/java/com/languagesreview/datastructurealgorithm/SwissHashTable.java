@@ -0,0 +1,270 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.util.*;
+
+/**
+ * Open-addressing "Swiss table": slots are grouped sixteen at a time, and each slot has a
+ * one-byte control tag holding seven bits of its hash (or EMPTY / DELETED). A lookup
+ * compares the whole group's tags against the probe tag at once and only touches keys
+ * whose tag matched, so most misses never read a key at all.
+ *
+ * Group matching uses the Vector API when the {@code jdk.incubator.vector} module is
+ * available and falls back to eight-bytes-per-long scalar matching otherwise.
+ */
+public class SwissHashTable<K, V> {
+    static final byte EMPTY = (byte) 0x80;
+    static final byte DELETED = (byte) 0xFE;
+
+    private static final int GROUP = GroupMatcher.GROUP_SIZE;
+    private static final int MIN_GROUPS = 1;
+    private static final GroupMatcher DEFAULT_MATCHER = loadMatcher();
+
+    private final GroupMatcher matcher;
+    private byte[] ctrl;
+    private Object[] slots; // key at 2 * index, value right after it on the same cache line
+    private int groupMask;
+    private int size;
+    private int growthLeft; // inserts into EMPTY slots allowed before rehashing
+
+    public SwissHashTable() {
+        this(0);
+    }
+
+    public SwissHashTable(int expectedSize) {
+        this(expectedSize, DEFAULT_MATCHER);
+    }
+
+    SwissHashTable(int expectedSize, GroupMatcher matcher) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative");
+        }
+        this.matcher = matcher;
+        allocate(groupsFor(expectedSize));
+    }
+
+    public static boolean isVectorized() {
+        return !(DEFAULT_MATCHER instanceof ScalarGroupMatcher);
+    }
+
+    public void put(K key, V value) {
+        int hash = hash(key);
+        int index = find(key, hash);
+        if (index >= 0) {
+            slots[2 * index + 1] = value;
+            return;
+        }
+
+        int slot = findInsertSlot(hash);
+        if (growthLeft == 0 && ctrl[slot] == EMPTY) {
+            rehash();
+            slot = findInsertSlot(hash);
+        }
+
+        if (ctrl[slot] == EMPTY) {
+            growthLeft--;
+        }
+        ctrl[slot] = tag(hash);
+        slots[2 * slot] = key;
+        slots[2 * slot + 1] = value;
+        size++;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        int index = find(key, hash(key));
+        return index < 0 ? null : (V) slots[2 * index + 1];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        int index = find(key, hash(key));
+        if (index < 0) {
+            return null;
+        }
+
+        V oldValue = (V) slots[2 * index + 1];
+        slots[2 * index] = null;
+        slots[2 * index + 1] = null;
+        size--;
+
+        // A group that never filled up cannot have pushed a probe past it, so the slot
+        // can become EMPTY again; otherwise a tombstone keeps later probes going
+        int group = index & ~(GROUP - 1);
+        if (matcher.matchEmpty(ctrl, group) != 0) {
+            ctrl[index] = EMPTY;
+            growthLeft++;
+        } else {
+            ctrl[index] = DELETED;
+        }
+        return oldValue;
+    }
+
+    public boolean containsKey(K key) {
+        return find(key, hash(key)) >= 0;
+    }
+
+    public boolean containsValue(V value) {
+        for (int i = 0; i < ctrl.length; i++) {
+            if (ctrl[i] >= 0 && Objects.equals(slots[2 * i + 1], value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(ctrl, EMPTY);
+        Arrays.fill(slots, null);
+        size = 0;
+        growthLeft = maxLoad(ctrl.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Set<K> keySet() {
+        Set<K> result = new HashSet<>();
+        for (int i = 0; i < ctrl.length; i++) {
+            if (ctrl[i] >= 0) {
+                result.add((K) slots[2 * i]);
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Collection<V> values() {
+        List<V> result = new ArrayList<>(size);
+        for (int i = 0; i < ctrl.length; i++) {
+            if (ctrl[i] >= 0) {
+                result.add((V) slots[2 * i + 1]);
+            }
+        }
+        return result;
+    }
+
+    private int find(K key, int hash) {
+        byte tag = tag(hash);
+        int group = (hash >>> 7) & groupMask;
+
+        // Triangular probing over groups visits every group once when the count is a power of two
+        for (int step = 1; ; step++) {
+            int offset = group * GROUP;
+            for (int bits = matcher.match(ctrl, offset, tag); bits != 0; bits &= bits - 1) {
+                int index = offset + Integer.numberOfTrailingZeros(bits);
+                if (slots[2 * index].equals(key)) {
+                    return index;
+                }
+            }
+            if (matcher.matchEmpty(ctrl, offset) != 0) {
+                return -1;
+            }
+            group = (group + step) & groupMask;
+        }
+    }
+
+    private int findInsertSlot(int hash) {
+        int group = (hash >>> 7) & groupMask;
+
+        for (int step = 1; ; step++) {
+            int offset = group * GROUP;
+            int bits = matcher.matchEmptyOrDeleted(ctrl, offset);
+            if (bits != 0) {
+                return offset + Integer.numberOfTrailingZeros(bits);
+            }
+            group = (group + step) & groupMask;
+        }
+    }
+
+    private void rehash() {
+        byte[] oldCtrl = ctrl;
+        Object[] oldSlots = slots;
+
+        // Mostly tombstones: rebuild at the same size; otherwise double
+        int groups = groupMask + 1;
+        allocate(size >= maxLoad(oldCtrl.length) / 2 ? groups * 2 : groups);
+
+        for (int i = 0; i < oldCtrl.length; i++) {
+            if (oldCtrl[i] >= 0) {
+                int hash = hash(oldSlots[2 * i]);
+                int slot = findInsertSlot(hash);
+                ctrl[slot] = tag(hash);
+                slots[2 * slot] = oldSlots[2 * i];
+                slots[2 * slot + 1] = oldSlots[2 * i + 1];
+            }
+        }
+    }
+
+    private void allocate(int groups) {
+        int capacity = groups * GROUP;
+        ctrl = new byte[capacity];
+        Arrays.fill(ctrl, EMPTY);
+        slots = new Object[2 * capacity];
+        groupMask = groups - 1;
+        growthLeft = maxLoad(capacity) - size;
+    }
+
+    // Keep at least one slot in eight free so probes always reach an EMPTY slot
+    private static int maxLoad(int capacity) {
+        return capacity - capacity / 8;
+    }
+
+    private static int groupsFor(int expectedSize) {
+        int groups = MIN_GROUPS;
+        while (maxLoad(groups * GROUP) < expectedSize) {
+            groups <<= 1;
+        }
+        return groups;
+    }
+
+    private static byte tag(int hash) {
+        return (byte) (hash & 0x7F);
+    }
+
+    private static int hash(Object key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static GroupMatcher loadMatcher() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (GroupMatcher) Class.forName(SwissHashTable.class.getPackageName() + ".VectorGroupMatcher")
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Fall through to the scalar matcher
+            }
+        }
+        return new ScalarGroupMatcher();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+
+        boolean first = true;
+        for (int i = 0; i < ctrl.length; i++) {
+            if (ctrl[i] >= 0) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                sb.append(slots[2 * i]).append("=").append(slots[2 * i + 1]);
+                first = false;
+            }
+        }
+
+        sb.append("}");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,301 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hierarchical Timing Wheel: schedule and cancel are O(1), against O(log n) for a heap of
+ * deadlines.
+ *
+ * Time moves in ticks. Level 0 has one slot per tick; each coarser level has slots
+ * 2^wheelBits times wider than the one below. A timer goes into the lowest level whose
+ * span covers its remaining delay, in the slot its deadline falls in. Whenever the lower
+ * levels wrap around, the next slot of the level above is cascaded: its timers are
+ * re-inserted and land in finer slots, reaching level 0 by the tick they are due.
+ * Delays beyond the top level's span are parked in its farthest slot and re-placed each
+ * time it comes round.
+ *
+ * The wheel is driven by calling {@link #advance(long)} or {@link #advanceTo(long)},
+ * e.g. from a thread or a periodic task every tick. Due tasks are handed to the executor
+ * after the wheel's lock is released, so tasks may schedule or cancel timers.
+ */
+public class TimingWheel {
+    private static final int DEFAULT_WHEEL_BITS = 8;
+    private static final int DEFAULT_LEVELS = 4;
+    
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+    
+    public final class Timeout {
+        private final Runnable task;
+        private final long deadline; // in ticks
+        private Timeout prev;
+        private Timeout next;
+        private int state;
+        
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+        
+        // Returns false if the task already ran, was handed to the executor or was cancelled
+        public boolean cancel() {
+            lock.lock();
+            try {
+                if (state != PENDING) {
+                    return false;
+                }
+                unlink(this);
+                state = CANCELLED;
+                size--;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        public boolean isCancelled() {
+            lock.lock();
+            try {
+                return state == CANCELLED;
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        public boolean isExpired() {
+            lock.lock();
+            try {
+                return state == EXPIRED;
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        public long deadlineTick() {
+            return deadline;
+        }
+    }
+    
+    private final long tickNanos;
+    private final int wheelBits;
+    private final int mask;
+    private final int levels;
+    private final long span; // ticks covered by all levels together
+    private final Timeout[][] slots; // sentinel heads of circular lists
+    private final Executor executor;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long startNanos = System.nanoTime();
+    private long currentTick;
+    private int size;
+    
+    // Runs due tasks on the thread that advances the wheel
+    public TimingWheel(long tickDuration, TimeUnit unit) {
+        this(tickDuration, unit, Runnable::run);
+    }
+    
+    public TimingWheel(long tickDuration, TimeUnit unit, Executor executor) {
+        this(tickDuration, unit, DEFAULT_WHEEL_BITS, DEFAULT_LEVELS, executor);
+    }
+    
+    public TimingWheel(long tickDuration, TimeUnit unit, int wheelBits, int levels, Executor executor) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        if (wheelBits < 1 || wheelBits > 16) {
+            throw new IllegalArgumentException("Wheel bits must be between 1 and 16");
+        }
+        if (levels < 1 || (long) wheelBits * levels > 62) {
+            throw new IllegalArgumentException("Levels must be positive and cover at most 2^62 ticks");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.wheelBits = wheelBits;
+        this.mask = (1 << wheelBits) - 1;
+        this.levels = levels;
+        this.span = 1L << (wheelBits * levels);
+        this.executor = executor;
+        this.slots = new Timeout[levels][1 << wheelBits];
+        for (Timeout[] level : slots) {
+            for (int i = 0; i < level.length; i++) {
+                Timeout sentinel = new Timeout(null, 0);
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                level[i] = sentinel;
+            }
+        }
+    }
+    
+    /**
+     * Runs task once the wheel has advanced past the delay, rounded up to whole ticks.
+     * A delay of zero fires on the next tick.
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        if (delay < 0) {
+            throw new IllegalArgumentException("Delay cannot be negative");
+        }
+        
+        long nanos = unit.toNanos(delay);
+        long ticks = Math.max(1, nanos / tickNanos + (nanos % tickNanos == 0 ? 0 : 1));
+        lock.lock();
+        try {
+            long deadline = currentTick + Math.min(ticks, Long.MAX_VALUE - currentTick);
+            Timeout timeout = new Timeout(task, deadline);
+            place(timeout);
+            size++;
+            return timeout;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Advances the wheel by the given number of ticks and returns how many tasks came due.
+    // Every due task is handed to the executor even if some throw; the first exception is
+    // rethrown afterwards with the others suppressed.
+    public int advance(long ticks) {
+        if (ticks < 0) {
+            throw new IllegalArgumentException("Ticks cannot be negative");
+        }
+        
+        Timeout expired = null;
+        int count = 0;
+        lock.lock();
+        try {
+            long target = currentTick + ticks;
+            while (currentTick < target) {
+                if (size == 0) {
+                    currentTick = target; // nothing pending, nothing to cascade
+                    break;
+                }
+                currentTick++;
+                cascade();
+                
+                // Collect the due slot into a private list threaded through the timeouts
+                Timeout sentinel = slots[0][(int) currentTick & mask];
+                Timeout t = sentinel.next;
+                sentinel.next = sentinel;
+                sentinel.prev = sentinel;
+                while (t != sentinel) {
+                    Timeout next = t.next;
+                    if (t.deadline > currentTick) {
+                        place(t); // parked beyond a single-level wheel's span
+                    } else {
+                        t.state = EXPIRED;
+                        t.next = expired;
+                        expired = t;
+                        count++;
+                    }
+                    t = next;
+                }
+            }
+            size -= count;
+        } finally {
+            lock.unlock();
+        }
+        
+        RuntimeException failure = null;
+        for (Timeout t = expired; t != null; ) {
+            Timeout next = t.next;
+            t.next = null;
+            t.prev = null;
+            try {
+                executor.execute(t.task);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+            t = next;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return count;
+    }
+    
+    // Advances to a System.nanoTime() reading, counting ticks from the wheel's creation
+    public int advanceTo(long nanoTime) {
+        long target = (nanoTime - startNanos) / tickNanos;
+        lock.lock();
+        try {
+            target -= currentTick;
+        } finally {
+            lock.unlock();
+        }
+        return target > 0 ? advance(target) : 0;
+    }
+    
+    public long currentTick() {
+        lock.lock();
+        try {
+            return currentTick;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Number of timers that have been neither run nor cancelled
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+    
+    // Every level whose lower levels just wrapped re-inserts its current slot, top down
+    private void cascade() {
+        int level = 1;
+        while (level < levels && (currentTick & ((1L << (wheelBits * level)) - 1)) == 0) {
+            level++;
+        }
+        for (int i = level - 1; i >= 1; i--) {
+            Timeout sentinel = slots[i][(int) (currentTick >>> (wheelBits * i)) & mask];
+            Timeout t = sentinel.next;
+            sentinel.next = sentinel;
+            sentinel.prev = sentinel;
+            while (t != sentinel) {
+                Timeout next = t.next;
+                place(t);
+                t = next;
+            }
+        }
+    }
+    
+    private void place(Timeout timeout) {
+        long delta = timeout.deadline - currentTick;
+        long slotTick = delta < span ? timeout.deadline : currentTick + span - 1;
+        int level = 0;
+        while (level < levels - 1 && delta >>> (wheelBits * (level + 1)) != 0) {
+            level++;
+        }
+        
+        Timeout sentinel = slots[level][(int) (slotTick >>> (wheelBits * level)) & mask];
+        timeout.prev = sentinel.prev;
+        timeout.next = sentinel;
+        sentinel.prev.next = timeout;
+        sentinel.prev = timeout;
+    }
+    
+    private static void unlink(Timeout timeout) {
+        timeout.prev.next = timeout.next;
+        timeout.next.prev = timeout.prev;
+        timeout.prev = null;
+        timeout.next = null;
+    }
+}
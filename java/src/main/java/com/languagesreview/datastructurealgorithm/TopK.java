@@ -0,0 +1,68 @@
+package com.languagesreview.datastructurealgorithm;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collector;
+
+/**
+ * Keeps the k largest values of a stream, by a comparator, in a {@link GenericMinHeap}
+ * of size k. Once the heap is full a larger value replaces the current minimum with one
+ * sift down instead of an extract and an insert.
+ */
+public class TopK<T> implements Consumer<T> {
+    private final GenericMinHeap<T> heap;
+    private final Comparator<? super T> comparator;
+    private final int k;
+    
+    public TopK(int k, Comparator<? super T> comparator) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("K must be positive");
+        }
+        this.k = k;
+        this.comparator = Objects.requireNonNull(comparator);
+        this.heap = new GenericMinHeap<>(comparator);
+    }
+    
+    @Override
+    public void accept(T value) {
+        if (heap.size() < k) {
+            heap.insert(value);
+        } else if (comparator.compare(value, heap.getMin()) > 0) {
+            heap.replaceMin(value);
+        }
+    }
+    
+    public TopK<T> combine(TopK<T> other) {
+        for (T value : other.toSortedList()) {
+            accept(value);
+        }
+        return this;
+    }
+    
+    // The values kept so far, largest first
+    public List<T> toSortedList() {
+        List<T> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.extractMin());
+        }
+        heap.addAll(result);
+        Collections.reverse(result);
+        return result;
+    }
+    
+    public int size() {
+        return heap.size();
+    }
+    
+    public int k() {
+        return k;
+    }
+    
+    public static <T extends Comparable<? super T>> Collector<T, TopK<T>, List<T>> collector(int k) {
+        return collector(k, Comparator.naturalOrder());
+    }
+    
+    public static <T> Collector<T, TopK<T>, List<T>> collector(int k, Comparator<? super T> comparator) {
+        return Collector.of(() -> new TopK<>(k, comparator), TopK::accept, TopK::combine, TopK::toSortedList);
+    }
+}
@@ -0,0 +1,29 @@
+package com.languagesreview.datastructurealgorithm;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link GroupMatcher} using one 128-bit byte comparison per group. Only loaded when the
+ * {@code jdk.incubator.vector} module is present (run with
+ * {@code --add-modules jdk.incubator.vector}).
+ */
+final class VectorGroupMatcher implements GroupMatcher {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_128;
+
+    @Override
+    public int match(byte[] ctrl, int offset, byte tag) {
+        return (int) ByteVector.fromArray(SPECIES, ctrl, offset).eq(tag).toLong();
+    }
+
+    @Override
+    public int matchEmpty(byte[] ctrl, int offset) {
+        return match(ctrl, offset, SwissHashTable.EMPTY);
+    }
+
+    @Override
+    public int matchEmptyOrDeleted(byte[] ctrl, int offset) {
+        // Only EMPTY and DELETED are negative
+        return (int) ByteVector.fromArray(SPECIES, ctrl, offset).lt((byte) 0).toLong();
+    }
+}